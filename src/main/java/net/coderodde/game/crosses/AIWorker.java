@@ -1,14 +1,10 @@
 package net.coderodde.game.crosses;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import javax.swing.JOptionPane;
 import javax.swing.SwingWorker;
@@ -21,7 +17,11 @@ import javax.swing.SwingWorker;
  */
 class AIWorker extends SwingWorker<TicTacToeGrid, Void> {
 
-    private static final double LARGE = 1e10;
+    /**
+     * The number of progress tokens each root move is worth. The tokens are
+     * reported gradually as the replies to the root move are searched.
+     */
+    private static final int PROGRESS_TOKENS_PER_ROOT_MOVE = 100;
 
     private final ConfigurationFrame configurationFrame;
     private final GameFrame gameFrame;
@@ -31,6 +31,25 @@ class AIWorker extends SwingWorker<TicTacToeGrid, Void> {
     private final MoveGenerator moveGenerator;
     private final HeuristicFunction heuristicFunction;
     private final int maximumDepth;
+    private final EngineType engineType;
+    private final int timeBudget;
+
+    /**
+     * The depth of the current search. Equals the maximum depth unless the
+     * depth is chosen automatically.
+     */
+    private int depth;
+
+    /**
+     * Set if the search ended before it was done.
+     */
+    private boolean cancelled;
+
+    /**
+     * The Lazy SMP search of this turn, or {@code null} for the other
+     * engines.
+     */
+    private LazySmpSearch lazySmpSearch;
 
     AIWorker(ConfigurationFrame configurationFrame,
              GameFrame gameFrame,
@@ -39,7 +58,9 @@ class AIWorker extends SwingWorker<TicTacToeGrid, Void> {
              TicTacToePanel canvas,
              MoveGenerator moveGenerator,
              HeuristicFunction heuristicFunction,
-             int maximumDepth) {
+             int maximumDepth,
+             EngineType engineType,
+             int timeBudget) {
         this.configurationFrame = configurationFrame;
         this.gameFrame = gameFrame;
         this.progressListener = progressListener;
@@ -48,6 +69,8 @@ class AIWorker extends SwingWorker<TicTacToeGrid, Void> {
         this.moveGenerator = moveGenerator;
         this.heuristicFunction = heuristicFunction;
         this.maximumDepth = maximumDepth;
+        this.engineType = engineType;
+        this.timeBudget = timeBudget;
     }
 
     @Override
@@ -55,13 +78,144 @@ class AIWorker extends SwingWorker<TicTacToeGrid, Void> {
         canvas.lock(); // Make sure that the user's clicks do not modify the 
                        // grid.
 
+        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        EngineEvents.SearchEvent event = new EngineEvents.SearchEvent();
+        event.begin();
+
+        EngineMetrics metrics = EngineMetrics.get();
+        metrics.searchStarted(engineType);
+
+        DepthController depthController = null;
+        int rootMoves = 0;
+        depth = maximumDepth;
+
+        if (maximumDepth == DepthController.AUTOMATIC_DEPTH
+                && engineType != EngineType.MONTE_CARLO) {
+            depthController = gameFrame.getDepthController(engineType);
+            rootMoves = moveGenerator.generateMoves(grid, Mark.O).size();
+            depth = depthController.chooseDepth(rootMoves,
+                                                grid.getEmptyCount(),
+                                                timeBudget);
+        }
+
+        SearchResult result = null;
+        boolean completed = false;
+
+        try {
+            if (engineType == EngineType.MONTE_CARLO) {
+                result = searchMonteCarlo();
+            } else if (engineType == EngineType.LAZY_SMP) {
+                result = searchLazySmp();
+            } else {
+                result = searchAlphaBeta();
+            }
+
+            completed = !cancelled;
+        } finally {
+            if (completed) {
+                long nanos = System.nanoTime() - startNanos;
+                long nodes = result == null ? 0 : result.getNodes();
+
+                metrics.searchFinished(engineType, nanos, nodes);
+
+                if (depthController != null) {
+                    // The helpers of Lazy SMP add nodes but not depth, so 
+                    // only the main thread tells how the search grows.
+                    depthController.searchFinished(
+                            rootMoves,
+                            depth,
+                            lazySmpSearch == null ?
+                                    nodes :
+                                    lazySmpSearch.getMainThreadNodes(),
+                            nanos);
+                }
+            } else {
+                metrics.searchCancelled(engineType);
+            }
+        }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            commitSearchEvent(event, result);
+        }
+
+        long endTime = System.currentTimeMillis();
+        System.out.println("Computation took " + (endTime - startTime) +
+                           " milliseconds.");
+
+        if (result == null) {
+            return null;
+        }
+
+        TicTacToeGrid bestState = result.getBestState();
+
+        recordMove(bestState);
+        grid.set(bestState);
+
+        Mark winner = grid.getWinner();
+        String message = null;
+
+        if (winner != null) {
+            message = winner.equals(Mark.X) ? "You won!" : "You lost.";
+        } else if (grid.isFull()) {
+            message = "It's a tie.";
+        }
+
+        if (message != null) {
+            canvas.getGameRecorder().finish();
+            JOptionPane.showMessageDialog(canvas,
+                                          message,
+                                          "Game over", 
+                                          JOptionPane.INFORMATION_MESSAGE);
+            gameFrame.setVisible(false);
+            configurationFrame.setVisible(true);
+        } else {
+            canvas.unlock();
+        }
+
+        return null;
+    }
+    
+    /**
+     * Searches every move of the AI to the depth in parallel, on the search
+     * workers listed by {@value DistributedSearch#WORKERS_PROPERTY_NAME} if
+     * it is set and they are available.
+     * 
+     * @return the search result or {@code null} if there are no moves.
+     */
+    private SearchResult searchAlphaBeta() {
+        DistributedSearch distributedSearch =
+                DistributedSearch.fromSystemProperties(
+                        moveGenerator,
+                        PruningOptions.fromSystemProperties());
+
+        if (distributedSearch != null) {
+            try {
+                return distributedSearch.search(grid,
+                                                Mark.O,
+                                                depth,
+                                                progressListener);
+            } catch (IOException ex) {
+                System.err.println("Distributed search failed, searching " +
+                                   "locally: " + ex.getMessage());
+            }
+        }
+
         List<TicTacToeGrid> nextStateList = moveGenerator.generateMoves(grid, 
                                                                         Mark.O);
         if (nextStateList.isEmpty()) {
             return null;
         }
 
-        progressListener.start(nextStateList.size());
+        progressListener.start(nextStateList.size() * 
+                               PROGRESS_TOKENS_PER_ROOT_MOVE);
+
+        // Keep the entries of the previous moves, but prefer replacing them.
+        TranspositionTable transpositionTable = 
+                canvas.getTranspositionTable();
+        transpositionTable.newSearch();
 
         List<WorkerCallable> callableList = 
                 new ArrayList<>(nextStateList.size());
@@ -70,72 +224,145 @@ class AIWorker extends SwingWorker<TicTacToeGrid, Void> {
             callableList.add(new WorkerCallable(grid,
                                                 moveGenerator,
                                                 heuristicFunction,
-                                                maximumDepth,
+                                                transpositionTable,
+                                                depth,
                                                 progressListener));
         }
         
-        TicTacToeGrid bestState = null;
-        
         try {
-            long startTime = System.currentTimeMillis();
             List<Future<WorkerCallableResult>> resultList = 
-                    Executors.newCachedThreadPool().invokeAll(callableList);
-            long endTime = System.currentTimeMillis();
-            System.out.println("Computation took " + (endTime - startTime) +
-                               " milliseconds.");
+                    EngineExecutors.searchPool().invokeAll(callableList);
 
-            bestState        = resultList.get(0).get().bestState;
-            double bestValue = resultList.get(0).get().bestValue;
+            TicTacToeGrid bestState = resultList.get(0).get().bestState;
+            int bestValue           = resultList.get(0).get().bestValue;
+            long nodes       = 0;
+            long tableProbes = 0;
+            long tableHits   = 0;
 
             for (Future<WorkerCallableResult> result : resultList) {
-                double currentValue = result.get().bestValue;
+                int currentValue = result.get().bestValue;
                 TicTacToeGrid currentState = result.get().bestState;
 
                 if (bestValue > currentValue) {
                     bestValue = currentValue;
                     bestState = currentState;
                 }
+
+                nodes       += result.get().nodes;
+                tableProbes += result.get().tableProbes;
+                tableHits   += result.get().tableHits;
             }
+
+            EngineMetrics.get().tableProbed(tableProbes, tableHits);
+            EngineEvents.commitCacheStatistics(engineType.toString(),
+                                               transpositionTable,
+                                               tableProbes,
+                                               tableHits);
+
+            int cell = bestState.getAddedCell(grid);
+
+            return new SearchResult(bestState,
+                                    cell % grid.getWidth(),
+                                    cell / grid.getWidth(),
+                                    bestValue,
+                                    depth,
+                                    nodes);
         }
         catch (InterruptedException | ExecutionException ex) {
+            cancelled = true;
+            EngineEvents.commitSearchCancelled(engineType.toString(),
+                                               ex.toString());
             return null;
         }
-        
-        grid.set(bestState);
+    }
 
-        Mark winner = grid.getWinner();
-        String message = null;
+    /**
+     * Searches the moves of the AI to the depth on all the search
+     * threads sharing the transposition table.
+     * 
+     * @return the search result or {@code null} if there are no moves.
+     */
+    private SearchResult searchLazySmp() {
+        TranspositionTable transpositionTable = 
+                canvas.getTranspositionTable();
+        transpositionTable.newSearch();
+
+        lazySmpSearch = new LazySmpSearch(moveGenerator,
+                                          heuristicFunction,
+                                          transpositionTable);
+        return lazySmpSearch.search(grid, Mark.O, depth, progressListener);
+    }
 
-        if (winner != null) {
-            message = winner.equals(Mark.X) ? "You won!" : "You lost.";
-        } else if (grid.isFull()) {
-            message = "It's a tie.";
-        }
+    /**
+     * Runs the Monte Carlo tree search of the game for the time budget.
+     * 
+     * @return the search result or {@code null} if there are no moves.
+     */
+    private SearchResult searchMonteCarlo() {
+        return canvas.getMonteCarloTreeSearch().search(grid, 
+                                                       Mark.O, 
+                                                       timeBudget, 
+                                                       progressListener);
+    }
 
-        if (message != null) {
-            JOptionPane.showMessageDialog(canvas,
-                                          message,
-                                          "Game over", 
-                                          JOptionPane.INFORMATION_MESSAGE);
-            gameFrame.setVisible(false);
-            configurationFrame.setVisible(true);
+    /**
+     * Fills {@code event} with the configuration of this search and with 
+     * {@code result}, and commits it.
+     */
+    private void commitSearchEvent(EngineEvents.SearchEvent event,
+                                   SearchResult result) {
+        event.engine = engineType.toString();
+        event.boardWidth = grid.getWidth();
+        event.boardHeight = grid.getHeight();
+        event.winningLength = grid.getWinningLength();
+        event.maximumDepth = depth;
+        event.timeBudget = timeBudget;
+
+        if (engineType == EngineType.MONTE_CARLO) {
+            event.threads = canvas.getMonteCarloTreeSearch().getThreads();
+            event.pruning = "";
         } else {
-            canvas.unlock();
+            event.threads = EngineExecutors.getSearchThreadCount();
+            event.pruning = PruningOptions.fromSystemProperties().toString();
         }
 
-        return null;
+        if (result != null) {
+            event.depth = result.getDepth();
+            event.nodes = result.getNodes();
+            event.score = result.getScore();
+            event.bestX = result.getBestX();
+            event.bestY = result.getBestY();
+        }
+
+        event.commit();
     }
-    
+
+    /**
+     * Records the AI move leading from the current grid to {@code nextState}.
+     */
+    private void recordMove(TicTacToeGrid nextState) {
+        int cell = nextState.getAddedCell(grid);
+
+        if (cell >= 0) {
+            canvas.getGameRecorder().recordMove(cell % grid.getWidth(),
+                                                cell / grid.getWidth(),
+                                                Mark.O);
+        }
+    }
+
     @Override
     protected void done() {
         progressListener.done();
-        canvas.repaint();
+        canvas.refreshCells();
         canvas.unlock();
     }
     
     private static class WorkerCallableResult {
         TicTacToeGrid bestState;
-        double bestValue;
+        int bestValue;
+        long nodes;
+        long tableProbes;
+        long tableHits;
     }
 
     private static final class WorkerCallable 
@@ -144,119 +371,75 @@ class AIWorker extends SwingWorker<TicTacToeGrid, Void> {
         private final TicTacToeGrid       state;
         private final MoveGenerator       moveGenerator;
         private final HeuristicFunction   heuristicFunction;
+        private final TranspositionTable  transpositionTable;
         private final int                 maximumDepth;
         private final AIProgressListener  progressListener;
 
+        /**
+         * The number of progress tokens of this root move reported so far.
+         */
+        private int reportedProgressTokens;
+
         WorkerCallable(TicTacToeGrid state,
                        MoveGenerator moveGenerator,
                        HeuristicFunction heuristicFunction,
+                       TranspositionTable transpositionTable,
                        int maximumDepth,
                        AIProgressListener progressListener) {
             this.state = state;
             this.moveGenerator = moveGenerator;
             this.heuristicFunction = heuristicFunction;
+            this.transpositionTable = transpositionTable;
             this.maximumDepth = maximumDepth;
             this.progressListener = progressListener;
         }
 
         @Override
         public WorkerCallableResult call() {
-            WorkerCallableResult result = new WorkerCallableResult();
-            result.bestValue = alphabeta(state, maximumDepth);
-            result.bestState = state;
-            progressListener.increment();
-            return result;
-        }
-
-        private double alphabeta(TicTacToeGrid node, 
-                                 int depth, 
-                                 double alpha, 
-                                 double beta, 
-                                 Mark player) {
-            double estimate = heuristicFunction.estimate(node);
-
-            if (Double.isInfinite(estimate)) {
-                // Once here, the game is over.
-
-                if (estimate > 0.0) {
-                    // The human player won.
-                    return LARGE + depth;
-                } else {
-                    // The AI bot won.
-                    return -LARGE - depth;
-                }
-            }
-
-            if (depth == 0) {
-                return estimate;
-            }
-
-            List<TicTacToeGrid> children = moveGenerator.generateMoves(node, 
-                                                                       player);
-            Comparator<TicTacToeGrid> comparator = 
-                    new ChildComparator(heuristicFunction,children);
-
-            Collections.<TicTacToeGrid>sort(children, comparator);
-
-            if (player.equals(Mark.X)) {
-                Collections.<TicTacToeGrid>reverse(children);
-
-                for (TicTacToeGrid child : children) {
-                    alpha = Math.max(alpha, alphabeta(child, 
-                                                      depth - 1, 
-                                                      alpha, 
-                                                      beta, 
-                                                      Mark.O));
-
-                    if (beta <= alpha) {
-                        return alpha;
+            AlphaBetaSearch search = 
+                    new AlphaBetaSearch(moveGenerator,
+                                        heuristicFunction,
+                                        transpositionTable,
+                                        PruningOptions.fromSystemProperties()) {
+                @Override
+                protected void childSearched(int ply, 
+                                             int searched, 
+                                             int total) {
+                    if (ply == 1) {
+                        // Replies to the root move are always made by X.
+                        reportProgress(searched, total);
                     }
                 }
+            };
 
-                return alpha;
-            }
-
-            for (TicTacToeGrid child : children) {
-                beta = Math.min(beta, alphabeta(child,
-                                                depth - 1,
-                                                alpha,
-                                                beta,
-                                                Mark.X));
-
-                if (beta <= alpha) {
-                    return alpha;
-                }
-            }
-
-            return beta;
-        }
+            WorkerCallableResult result = new WorkerCallableResult();
 
-        private double alphabeta(TicTacToeGrid state, int depth) {
-            return alphabeta(state, 
-                             depth, 
-                             -Double.MAX_VALUE, 
-                             Double.MAX_VALUE, 
-                             Mark.X);
+            // 'state' is already one ply away from the root of the AI move.
+            result.bestValue = search.alphabeta(state, 
+                                                maximumDepth, 
+                                                1,
+                                                -Score.INFINITY, 
+                                                Score.INFINITY, 
+                                                Mark.X);
+            result.bestState = state;
+            result.nodes = search.getNodes();
+            result.tableProbes = search.getTableProbes();
+            result.tableHits = search.getTableHits();
+            progressListener.increment(PROGRESS_TOKENS_PER_ROOT_MOVE - 
+                                       reportedProgressTokens);
+            return result;
         }
 
-        private final class ChildComparator 
-        implements Comparator<TicTacToeGrid> {
-
-            private final Map<TicTacToeGrid, Double> heuristicMap 
-                    = new HashMap<>();
-
-            ChildComparator(HeuristicFunction heuristicFunction,
-                            List<TicTacToeGrid> grids) {
-                for (TicTacToeGrid grid : grids) {
-                    heuristicMap.put(grid, 
-                                     heuristicFunction.estimate(grid));
-                }
-            }
+        /**
+         * Reports the share of the progress tokens of this root move 
+         * corresponding to {@code searched} out of {@code total} replies.
+         */
+        private void reportProgress(int searched, int total) {
+            int tokens = PROGRESS_TOKENS_PER_ROOT_MOVE * searched / total;
 
-            @Override
-            public int compare(TicTacToeGrid o1, TicTacToeGrid o2) {
-                return Double.compare(heuristicMap.get(o1), 
-                                      heuristicMap.get(o2));
+            if (tokens > reportedProgressTokens) {
+                progressListener.increment(tokens - reportedProgressTokens);
+                reportedProgressTokens = tokens;
             }
         }
     }
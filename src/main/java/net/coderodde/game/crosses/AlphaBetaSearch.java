@@ -0,0 +1,791 @@
+package net.coderodde.game.crosses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements the depth-limited alpha-beta search of the AI. The
+ * <tt>X</tt> player is the maximizing one. An instance keeps count of the nodes
+ * it visits and is therefore meant to be used by one thread at a time. Several
+ * instances may share a {@link TranspositionTable}, though.
+ * <p>
+ * A search may be stopped from another thread by {@link #abort()}, after which
+ * the values it returns are meaningless and nothing more is stored in the
+ * transposition table.
+ * <p>
+ * The selective search features switched on by its {@link PruningOptions}
+ * make a search faster at the cost of the exactness of the values with respect
+ * to the heuristic. They must not cost a forced win the full search finds;
+ * {@link ForcedWinSuite} guards against that and fails on any lost win.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * The number of first moves of a node never searched to a reduced depth.
+     */
+    private static final int LMR_FULL_DEPTH_MOVES = 3;
+
+    /**
+     * The least remaining depth at which the late moves are reduced.
+     */
+    private static final int LMR_MINIMUM_DEPTH = 3;
+
+    /**
+     * The largest number of plies the forcing-move extension adds to a leaf.
+     */
+    private static final int MAXIMUM_EXTENSION = 8;
+
+    private final MoveGenerator     moveGenerator;
+    private final HeuristicFunction heuristicFunction;
+    private final PruningOptions    pruningOptions;
+
+    /**
+     * The transposition table, or {@code null} for searching without one.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * The entry the probes of the transposition table are copied to.
+     */
+    private final TranspositionTable.Entry tableEntry =
+            new TranspositionTable.Entry();
+
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+
+    private volatile boolean aborted;
+
+    public AlphaBetaSearch(MoveGenerator moveGenerator,
+                           HeuristicFunction heuristicFunction) {
+        this(moveGenerator, heuristicFunction, null);
+    }
+
+    public AlphaBetaSearch(MoveGenerator moveGenerator,
+                           HeuristicFunction heuristicFunction,
+                           TranspositionTable transpositionTable) {
+        this(moveGenerator,
+             heuristicFunction,
+             transpositionTable,
+             PruningOptions.NONE);
+    }
+
+    public AlphaBetaSearch(MoveGenerator moveGenerator,
+                           HeuristicFunction heuristicFunction,
+                           TranspositionTable transpositionTable,
+                           PruningOptions pruningOptions) {
+        this.moveGenerator = moveGenerator;
+        this.heuristicFunction = heuristicFunction;
+        this.transpositionTable = transpositionTable;
+        this.pruningOptions = pruningOptions;
+    }
+
+    /**
+     * Returns the number of nodes visited by this search so far.
+     *
+     * @return the node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of probes of the transposition table made by this
+     * search so far.
+     *
+     * @return the probe count.
+     */
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    /**
+     * Returns the number of probes of the transposition table made by this
+     * search so far that found an entry.
+     *
+     * @return the hit count.
+     */
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * Stops the running search, and every later one, as soon as possible.
+     * May be called from any thread.
+     */
+    public void abort() {
+        aborted = true;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid}. The root
+     * moves are searched {@code depth} plies deep each, just like the root
+     * moves of the AI.
+     *
+     * @param grid   the position to search.
+     * @param player the player to move.
+     * @param depth  the search depth below the root moves.
+     * @return the search result, or {@code null} if there are no moves.
+     */
+    public SearchResult search(TicTacToeGrid grid, Mark player, int depth) {
+        long startNodes = nodes;
+        nodes++;
+
+        List<TicTacToeGrid> children = moveGenerator.generateMoves(grid,
+                                                                   player);
+        if (children.isEmpty()) {
+            return null;
+        }
+
+        orderChildren(children, player);
+
+        if (transpositionTable != null
+                && probeTable(TranspositionTable.key(grid, player))) {
+            promoteMove(children, grid, tableEntry.getBestMove());
+        }
+
+        int alpha = -Score.INFINITY;
+        int beta  =  Score.INFINITY;
+
+        TicTacToeGrid bestState = null;
+        int bestValue = 0;
+        int searched = 0;
+
+        for (TicTacToeGrid child : children) {
+            int value = alphabeta(child,
+                                  depth,
+                                  1,
+                                  alpha,
+                                  beta,
+                                  player.opponent());
+
+            if (player.equals(Mark.X)) {
+                if (bestState == null || value > bestValue) {
+                    bestState = child;
+                    bestValue = value;
+                    alpha = Math.max(alpha, value);
+                }
+            } else if (bestState == null || value < bestValue) {
+                bestState = child;
+                bestValue = value;
+                beta = Math.min(beta, value);
+            }
+
+            childSearched(0, ++searched, children.size());
+        }
+
+        int cell = bestState.getAddedCell(grid);
+
+        return new SearchResult(bestState,
+                                cell % grid.getWidth(),
+                                cell / grid.getWidth(),
+                                bestValue,
+                                depth,
+                                nodes - startNodes);
+    }
+
+    /**
+     * Searches for the {@code count} best moves of {@code player} in
+     * {@code grid}, each with its exact score and principal variation. The
+     * root moves are searched {@code depth} plies deep each, just like by
+     * {@link #search(TicTacToeGrid, Mark, int)}.
+     * <p>
+     * Once {@code count} moves have been found, the score of the worst of
+     * them bounds the window of the remaining root moves, so that a move not
+     * making the list fails at the bound just as a move not beating the best
+     * one does in a single-PV search. Only the moves entering the list are
+     * searched with a window open on their side. The principal variations
+     * are read from the transposition table, and end at the root move if
+     * there is none.
+     *
+     * @param grid   the position to search.
+     * @param player the player to move.
+     * @param depth  the search depth below the root moves.
+     * @param count  the number of moves wanted.
+     * @return the best moves, best first, or an empty list if there are no
+     *         moves.
+     */
+    public List<PrincipalVariation> searchMultiPv(TicTacToeGrid grid,
+                                                  Mark player,
+                                                  int depth,
+                                                  int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException(
+                    "The number of moves must be positive: " + count);
+        }
+
+        nodes++;
+
+        List<PrincipalVariation> lines = new ArrayList<>(count + 1);
+        List<TicTacToeGrid> children = moveGenerator.generateMoves(grid,
+                                                                   player);
+        if (children.isEmpty()) {
+            return lines;
+        }
+
+        orderChildren(children, player);
+
+        if (transpositionTable != null
+                && probeTable(TranspositionTable.key(grid, player))) {
+            promoteMove(children, grid, tableEntry.getBestMove());
+        }
+
+        boolean maximizing = player.equals(Mark.X);
+        int searched = 0;
+
+        for (TicTacToeGrid child : children) {
+            int alpha = -Score.INFINITY;
+            int beta  =  Score.INFINITY;
+            boolean full = lines.size() == count;
+
+            if (full) {
+                int bound = lines.get(count - 1).getScore();
+
+                if (maximizing) {
+                    alpha = bound;
+                } else {
+                    beta = bound;
+                }
+            }
+
+            int value = alphabeta(child,
+                                  depth,
+                                  1,
+                                  alpha,
+                                  beta,
+                                  player.opponent());
+
+            if (aborted) {
+                break;
+            }
+
+            childSearched(0, ++searched, children.size());
+
+            if (full && (maximizing ? value <= alpha : value >= beta)) {
+                continue;
+            }
+
+            int index = lines.size();
+
+            while (index > 0 && (maximizing ?
+                    value > lines.get(index - 1).getScore() :
+                    value < lines.get(index - 1).getScore())) {
+                index--;
+            }
+
+            lines.add(index,
+                      new PrincipalVariation(
+                              child,
+                              readPrincipalVariation(grid,
+                                                     child,
+                                                     player,
+                                                     depth),
+                              value));
+
+            if (lines.size() > count) {
+                lines.remove(count);
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Returns the minimax value of {@code node} within the window
+     * {@code [alpha, beta]}.
+     *
+     * @param node   the position to search.
+     * @param depth  the remaining depth.
+     * @param ply    the distance of {@code node} from the root.
+     * @param alpha  the lower bound.
+     * @param beta   the upper bound.
+     * @param player the player to move in {@code node}.
+     * @return the value of {@code node}.
+     */
+    public int alphabeta(TicTacToeGrid node,
+                         int depth,
+                         int ply,
+                         int alpha,
+                         int beta,
+                         Mark player) {
+        nodes++;
+
+        if (aborted) {
+            return 0;
+        }
+
+        long key = 0L;
+        int tableMove = -1;
+
+        if (transpositionTable != null && depth > 0) {
+            key = TranspositionTable.key(node, player);
+
+            if (probeTable(key)) {
+                tableMove = tableEntry.getBestMove();
+
+                if (tableEntry.getDepth() >= depth) {
+                    int value = Score.fromTableScore(tableEntry.getValue(),
+                                                     ply);
+
+                    switch (tableEntry.getBound()) {
+                        case TranspositionTable.EXACT:
+                            return value;
+
+                        case TranspositionTable.LOWER_BOUND:
+                            if (value >= beta) {
+                                return value;
+                            }
+
+                            break;
+
+                        case TranspositionTable.UPPER_BOUND:
+                            if (value <= alpha) {
+                                return value;
+                            }
+
+                            break;
+                    }
+                }
+            }
+        }
+
+        int estimate = heuristicFunction.evaluate(node);
+
+        if (estimate == Score.WIN) {
+            // The human player won.
+            return Score.win(Mark.X, ply);
+        }
+
+        if (estimate == -Score.WIN) {
+            // The AI bot won.
+            return Score.win(Mark.O, ply);
+        }
+
+        if (depth == 0) {
+            return pruningOptions.isForcingExtension() ?
+                   extendForcingMoves(node, estimate, ply, player) :
+                   estimate;
+        }
+
+        if (depth == 1 && pruningOptions.isFutilityPruning()) {
+            int winningLength = node.getWinningLength();
+            int margin = futilityMargin(winningLength);
+
+            // No move can lift the value into the window unless it wins. With
+            // the forcing-move extension, a move making a threat may win, too.
+            int tacticalMarks = pruningOptions.isForcingExtension() ?
+                                winningLength - 2 :
+                                winningLength - 1;
+
+            if (player.equals(Mark.X)) {
+                if (estimate + margin <= alpha
+                        && !node.hasOpenSegment(Mark.X, tacticalMarks)) {
+                    return alpha;
+                }
+            } else if (estimate - margin >= beta
+                    && !node.hasOpenSegment(Mark.O, tacticalMarks)) {
+                return beta;
+            }
+        }
+
+        List<TicTacToeGrid> children = moveGenerator.generateMoves(node,
+                                                                   player);
+        orderChildren(children, player);
+        promoteMove(children, node, tableMove);
+
+        int originalAlpha = alpha;
+        int originalBeta  = beta;
+        int searched = 0;
+        int value;
+        TicTacToeGrid bestChild = null;
+
+        if (player.equals(Mark.X)) {
+            value = alpha;
+
+            for (TicTacToeGrid child : children) {
+                int childValue = searchChild(node,
+                                             child,
+                                             searched,
+                                             depth,
+                                             ply,
+                                             alpha,
+                                             beta,
+                                             Mark.X);
+
+                if (bestChild == null || childValue > alpha) {
+                    bestChild = child;
+                }
+
+                alpha = Math.max(alpha, childValue);
+                value = alpha;
+
+                childSearched(ply, ++searched, children.size());
+
+                if (beta <= alpha) {
+                    break;
+                }
+            }
+        } else {
+            value = beta;
+
+            for (TicTacToeGrid child : children) {
+                int childValue = searchChild(node,
+                                             child,
+                                             searched,
+                                             depth,
+                                             ply,
+                                             alpha,
+                                             beta,
+                                             Mark.O);
+
+                if (bestChild == null || childValue < beta) {
+                    bestChild = child;
+                }
+
+                beta = Math.min(beta, childValue);
+                value = beta;
+
+                childSearched(ply, ++searched, children.size());
+
+                if (beta <= alpha) {
+                    value = alpha;
+                    break;
+                }
+            }
+        }
+
+        if (transpositionTable != null && !aborted) {
+            int bound;
+
+            if (value <= originalAlpha) {
+                bound = TranspositionTable.UPPER_BOUND;
+            } else if (value >= originalBeta) {
+                bound = TranspositionTable.LOWER_BOUND;
+            } else {
+                bound = TranspositionTable.EXACT;
+            }
+
+            transpositionTable.store(key,
+                                     Score.toTableScore(value, ply),
+                                     depth,
+                                     bound,
+                                     bestChild == null ?
+                                             -1 :
+                                             bestChild.getAddedCell(node));
+        }
+
+        return value;
+    }
+
+    /**
+     * Looks up {@code key} in the transposition table and copies its entry to
+     * {@code tableEntry}, counting the probe.
+     */
+    private boolean probeTable(long key) {
+        tableProbes++;
+
+        if (transpositionTable.probe(key, tableEntry)) {
+            tableHits++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the move from {@code grid} to {@code child} followed by the
+     * best moves stored in the transposition table, at most {@code depth}
+     * of them.
+     */
+    private int[] readPrincipalVariation(TicTacToeGrid grid,
+                                         TicTacToeGrid child,
+                                         Mark player,
+                                         int depth) {
+        int[] moves = new int[depth + 1];
+        int length = 0;
+
+        moves[length++] = child.getAddedCell(grid);
+
+        if (transpositionTable == null) {
+            return Arrays.copyOf(moves, length);
+        }
+
+        TicTacToeGrid node = new TicTacToeGrid(child);
+        TranspositionTable.Entry entry = new TranspositionTable.Entry();
+        Mark toMove = player.opponent();
+        int width = node.getWidth();
+
+        while (length <= depth
+                && node.getWinner() == null
+                && transpositionTable.probe(
+                        TranspositionTable.key(node, toMove), entry)) {
+            int move = entry.getBestMove();
+
+            if (move < 0 || node.read(move % width, move / width) != null) {
+                break;
+            }
+
+            node.mark(move % width, move / width, toMove);
+            moves[length++] = move;
+            toMove = toMove.opponent();
+        }
+
+        return Arrays.copyOf(moves, length);
+    }
+
+    /**
+     * Returns the value of the leaf {@code node} after the forced moves: an
+     * immediate win of {@code player}, or the block of the only threat of the
+     * opponent, followed by the forced moves of the opponent in turn. Returns
+     * {@code estimate} if there are none, and the static value of the last
+     * position if the extension reaches its limit.
+     *
+     * @param node     the leaf.
+     * @param estimate the static value of {@code node}.
+     * @param ply      the distance of {@code node} from the root.
+     * @param player   the player to move in {@code node}.
+     * @return the value of {@code node}.
+     */
+    private int extendForcingMoves(TicTacToeGrid node,
+                                   int estimate,
+                                   int ply,
+                                   Mark player) {
+        TicTacToeGrid grid = null;
+
+        for (int extension = 0; ; ++extension) {
+            TicTacToeGrid position = grid == null ? node : grid;
+
+            if (position.findWinningCell(player) >= 0) {
+                return Score.win(player, ply + 1);
+            }
+
+            Mark opponent = player.opponent();
+            int threat = position.findWinningCell(opponent);
+
+            if (threat < 0 || extension == MAXIMUM_EXTENSION) {
+                // Quiet, or too long a line to follow.
+                return grid == null ?
+                       estimate :
+                       heuristicFunction.evaluate(grid);
+            }
+
+            if (position.findWinningCell(opponent, threat + 1) >= 0) {
+                // Only one of the threats can be blocked.
+                return Score.win(opponent, ply + 2);
+            }
+
+            if (grid == null) {
+                grid = new TicTacToeGrid(node);
+            }
+
+            grid.mark(threat % grid.getWidth(),
+                      threat / grid.getWidth(),
+                      player);
+            nodes++;
+            ply++;
+            player = opponent;
+        }
+    }
+
+    /**
+     * Returns the value of {@code child} of {@code node}, in which
+     * {@code player} is to move, within the window {@code [alpha, beta]}. A
+     * late quiet move is first searched to a reduced depth with a null window
+     * and searched again only if it beats the window.
+     *
+     * @param moveNumber the number of the children searched before.
+     */
+    private int searchChild(TicTacToeGrid node,
+                            TicTacToeGrid child,
+                            int moveNumber,
+                            int depth,
+                            int ply,
+                            int alpha,
+                            int beta,
+                            Mark player) {
+        if (pruningOptions.isLateMoveReductions()
+                && depth >= LMR_MINIMUM_DEPTH
+                && moveNumber >= LMR_FULL_DEPTH_MOVES
+                && !makesThreat(node, child, player)) {
+            if (player.equals(Mark.X)) {
+                int value = alphabeta(child,
+                                      depth - 2,
+                                      ply + 1,
+                                      alpha,
+                                      alpha + 1,
+                                      Mark.O);
+                if (value <= alpha) {
+                    return value;
+                }
+            } else {
+                int value = alphabeta(child,
+                                      depth - 2,
+                                      ply + 1,
+                                      beta - 1,
+                                      beta,
+                                      Mark.X);
+                if (value >= beta) {
+                    return value;
+                }
+            }
+        }
+
+        return alphabeta(child,
+                         depth - 1,
+                         ply + 1,
+                         alpha,
+                         beta,
+                         player.opponent());
+    }
+
+    /**
+     * Returns the largest change of the static value, as computed by
+     * {@link HeuristicFunction}, a single move not winning the game may cause
+     * with the winning length {@code winningLength}.
+     * <p>
+     * In each of the four directions, a mark joining a run of {@code a} marks
+     * behind it and a run of {@code b} marks ahead of it, where
+     * {@code a + b <= winningLength - 2}, turns the runs starting at the
+     * {@code a} marks behind it, of the lengths {@code 1, ..., a}, into runs
+     * of the lengths {@code b + 2, ..., a + b + 1}, and adds a run of the
+     * length {@code b + 1} starting at itself. The runs ahead of it stay the
+     * same. The margin is four times the largest such gain.
+     */
+    static int futilityMargin(int winningLength) {
+        int largestGain = 0;
+
+        for (int b = 0; b <= winningLength - 2; ++b) {
+            int a = winningLength - 2 - b;
+            int gain = 0;
+
+            for (int length = Math.max(b + 1, 2); 
+                    length <= a + b + 1; 
+                    ++length) {
+                gain += length * length;
+            }
+
+            for (int length = 2; length <= a; ++length) {
+                gain -= length * length;
+            }
+
+            largestGain = Math.max(largestGain, gain);
+        }
+
+        return 4 * largestGain;
+    }
+
+    /**
+     * Returns {@code true} if the move of {@code player} leading from
+     * {@code node} to {@code child} leaves {@code player} a cell completing a
+     * line.
+     */
+    private static boolean makesThreat(TicTacToeGrid node,
+                                       TicTacToeGrid child,
+                                       Mark player) {
+        int cell = child.getAddedCell(node);
+        int x = cell % node.getWidth();
+        int y = cell / node.getWidth();
+        int reach = node.getWinningLength() - 1;
+
+        for (int[] direction : SparseTicTacToeGrid.DIRECTIONS) {
+            for (int i = -reach; i <= reach; ++i) {
+                int cx = x + i * direction[0];
+                int cy = y + i * direction[1];
+
+                if (i != 0
+                        && cx >= 0 && cx < child.getWidth()
+                        && cy >= 0 && cy < child.getHeight()
+                        && child.read(cx, cy) == null
+                        && child.completesLine(cx, cy, player)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Called after each child of a node at distance {@code ply} from the root
+     * has been searched. Does nothing by default.
+     *
+     * @param ply      the distance of the parent node from the root.
+     * @param searched the number of children searched so far.
+     * @param total    the number of children.
+     */
+    protected void childSearched(int ply, int searched, int total) {}
+
+    /**
+     * Moves the child of {@code node} marking the cell with the packed index
+     * {@code move} to the front of {@code children}, if there is one.
+     */
+    private static void promoteMove(List<TicTacToeGrid> children,
+                                    TicTacToeGrid node,
+                                    int move) {
+        if (move < 0) {
+            return;
+        }
+
+        int x = move % node.getWidth();
+        int y = move / node.getWidth();
+
+        for (int i = 1; i < children.size(); ++i) {
+            if (children.get(i).read(x, y) != null) {
+                children.add(0, children.remove(i));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sorts {@code children} so that the moves that look best for
+     * {@code player} come first. The move of the transposition table, if any,
+     * is moved to the front afterwards.
+     *
+     * @param children the children to sort.
+     * @param player   the player to move.
+     */
+    protected void orderChildren(List<TicTacToeGrid> children, Mark player) {
+        Comparator<TicTacToeGrid> comparator =
+                new ChildComparator(heuristicFunction, children);
+
+        Collections.<TicTacToeGrid>sort(children, comparator);
+
+        if (player.equals(Mark.X)) {
+            Collections.<TicTacToeGrid>reverse(children);
+        }
+    }
+
+    private static final class ChildComparator
+    implements Comparator<TicTacToeGrid> {
+
+        private final Map<TicTacToeGrid, Integer> heuristicMap
+                = new HashMap<>();
+
+        ChildComparator(HeuristicFunction heuristicFunction,
+                        List<TicTacToeGrid> grids) {
+            for (TicTacToeGrid grid : grids) {
+                heuristicMap.put(grid,
+                                 heuristicFunction.evaluate(grid));
+            }
+        }
+
+        @Override
+        public int compare(TicTacToeGrid o1, TicTacToeGrid o2) {
+            return Integer.compare(heuristicMap.get(o1),
+                                   heuristicMap.get(o2));
+        }
+    }
+}
@@ -19,6 +19,7 @@ public class Application {
      * @param args the command line arguments.
      */
     public static void main(String[] args) {
+        MetricsServer.startFromSystemProperties();
         SwingUtilities.invokeLater(new Runnable() {
 
             @Override
@@ -0,0 +1,501 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a command-line tool for analyzing large sets of
+ * positions offline. The positions are streamed either from a text file in the
+ * layout of {@link TicTacToeGrid#toString()}, with the positions separated by
+ * blank lines, or from a game record file written by
+ * {@link GameRecordWriter}, in which case every position of every game in
+ * which the game is not yet over is analyzed.
+ * <p>
+ * The positions are searched in parallel, one position per thread, while at
+ * most a bounded number of positions is held in memory at any time. The
+ * results are written in input order, one line per position:
+ * <pre>
+ * index  bestX  bestY  score  depth  nodes
+ * </pre>
+ * With {@code -m LINES}, the best {@code LINES} moves of each position are
+ * searched by {@link AlphaBetaSearch#searchMultiPv}, and written one line
+ * per move, best first, with the principal variation as space-separated
+ * <tt>x,y</tt> pairs:
+ * <pre>
+ * index  rank  x  y  score  depth  nodes  variation
+ * </pre>
+ * These searches use a transposition table per thread, from which the
+ * variations are read. The total number of nodes is reported at the end, so
+ * that the cost of the extra moves can be compared to a run with
+ * {@code -m 1}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class BatchAnalyzer {
+
+    private static final String USAGE =
+            "Usage: BatchAnalyzer [-d DEPTH] [-k WINNING_LENGTH] " +
+            "[-t THREADS] [-m LINES] INPUT [OUTPUT]";
+
+    /**
+     * The number of positions per thread that may be in flight.
+     */
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int DEFAULT_WINNING_LENGTH = 5;
+
+    private final int depth;
+    private final int threads;
+
+    /**
+     * The number of moves searched per position, or zero for the best move
+     * only.
+     */
+    private final int lines;
+
+    /**
+     * The number of slots of the transposition table of each thread.
+     */
+    private static final int TABLE_CAPACITY = 1 << 16;
+
+    private final LongAdder nodes = new LongAdder();
+
+    private final ThreadLocal<TranspositionTable> transpositionTables =
+            new ThreadLocal<TranspositionTable>() {
+
+        @Override
+        protected TranspositionTable initialValue() {
+            return new TranspositionTable(TABLE_CAPACITY);
+        }
+    };
+
+    public BatchAnalyzer(int depth, int threads) {
+        this(depth, threads, 0);
+    }
+
+    public BatchAnalyzer(int depth, int threads, int lines) {
+        this.depth = depth;
+        this.threads = threads;
+        this.lines = lines;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int depth = DEFAULT_DEPTH;
+        int winningLength = DEFAULT_WINNING_LENGTH;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int lines = 0;
+        List<String> files = new ArrayList<>(2);
+
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "-d":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-k":
+                    winningLength = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-t":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-m":
+                    lines = Integer.parseInt(args[++i]);
+                    break;
+
+                default:
+                    files.add(args[i]);
+            }
+        }
+
+        if (files.isEmpty() || files.size() > 2 || lines < 0) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        BatchAnalyzer analyzer = new BatchAnalyzer(depth, threads, lines);
+        long startTime = System.currentTimeMillis();
+        long positions;
+
+        try (PositionReader reader = PositionReader.open(files.get(0),
+                                                         winningLength);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     files.size() == 2 ?
+                             new FileOutputStream(files.get(1)) :
+                             System.out,
+                     StandardCharsets.UTF_8))) {
+            positions = analyzer.analyze(reader, writer);
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        System.err.println("Analyzed " + positions + " positions in " +
+                           (endTime - startTime) + " milliseconds, " +
+                           "visiting " + analyzer.getNodes() + " nodes.");
+    }
+
+    /**
+     * Analyzes all the positions of {@code reader} and writes the results to
+     * {@code writer} in input order.
+     *
+     * @param reader the source of positions.
+     * @param writer the target of the results.
+     * @return the number of positions analyzed.
+     * @throws IOException          if reading or writing fails.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public long analyze(PositionReader reader, final Writer writer)
+            throws IOException, InterruptedException {
+        final BlockingQueue<Future<String>> inFlight =
+                new ArrayBlockingQueue<>(IN_FLIGHT_PER_THREAD * threads);
+
+        // Marks the end of the input for the writer thread.
+        final FutureTask<String> endOfInput = new FutureTask<>(
+                new Callable<String>() {
+
+            @Override
+            public String call() {
+                return null;
+            }
+        });
+
+        endOfInput.run();
+
+        final Exception[] writerException = new Exception[1];
+
+        Thread writerThread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                Future<String> future;
+
+                try {
+                    while ((future = inFlight.take()) != endOfInput) {
+                        if (writerException[0] != null) {
+                            // Keep draining so that the producer never blocks.
+                            future.cancel(true);
+                            continue;
+                        }
+
+                        try {
+                            writer.write(future.get());
+                            writer.write('\n');
+                        } catch (ExecutionException | IOException ex) {
+                            writerException[0] = ex;
+                        }
+                    }
+
+                    if (writerException[0] == null) {
+                        writer.flush();
+                    }
+                } catch (InterruptedException | IOException ex) {
+                    writerException[0] = ex;
+                }
+            }
+        }, "batch-analyzer-writer");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long index = 0;
+
+        writerThread.start();
+
+        try {
+            Position position;
+
+            while ((position = reader.next()) != null) {
+                // Blocks once the in-flight limit is reached.
+                inFlight.put(pool.submit(new AnalysisTask(index++,
+                                                          position)));
+            }
+        } finally {
+            inFlight.put(endOfInput);
+            writerThread.join();
+            pool.shutdownNow();
+        }
+
+        if (writerException[0] != null) {
+            throw new IOException("Could not write the results.",
+                                  writerException[0]);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the number of nodes visited by the analyses so far.
+     *
+     * @return the node count.
+     */
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    /**
+     * A position to analyze along with the player to move.
+     */
+    static final class Position {
+
+        final TicTacToeGrid grid;
+        final Mark player;
+
+        Position(TicTacToeGrid grid, Mark player) {
+            this.grid = grid;
+            this.player = player;
+        }
+    }
+
+    private final class AnalysisTask implements Callable<String> {
+
+        private final long     index;
+        private final Position position;
+
+        AnalysisTask(long index, Position position) {
+            this.index = index;
+            this.position = position;
+        }
+
+        @Override
+        public String call() {
+            HeuristicFunction heuristicFunction = new HeuristicFunction();
+            int estimate = heuristicFunction.evaluate(position.grid);
+
+            if (Score.isWin(estimate) || position.grid.isFull()) {
+                return lines == 0 ?
+                       index + "\t-\t-\t" + estimate + "\t0\t0" :
+                       index + "\t1\t-\t-\t" + estimate + "\t0\t0\t";
+            }
+
+            if (lines > 0) {
+                return analyzeLines(heuristicFunction);
+            }
+
+            AlphaBetaSearch search =
+                    new AlphaBetaSearch(new NeighborhoodMoveGenerator(),
+                                        heuristicFunction);
+            SearchResult result = search.search(position.grid,
+                                                position.player,
+                                                depth);
+            nodes.add(result.getNodes());
+
+            return index + "\t" + result.getBestX() +
+                           "\t" + result.getBestY() +
+                           "\t" + result.getScore() +
+                           "\t" + result.getDepth() +
+                           "\t" + result.getNodes();
+        }
+
+        private String analyzeLines(HeuristicFunction heuristicFunction) {
+            TranspositionTable transpositionTable = transpositionTables.get();
+            transpositionTable.clear();
+
+            AlphaBetaSearch search =
+                    new AlphaBetaSearch(new NeighborhoodMoveGenerator(),
+                                        heuristicFunction,
+                                        transpositionTable);
+            List<PrincipalVariation> variations =
+                    search.searchMultiPv(position.grid,
+                                         position.player,
+                                         depth,
+                                         lines);
+            nodes.add(search.getNodes());
+
+            StringBuilder sb = new StringBuilder();
+
+            for (int rank = 0; rank < variations.size(); ++rank) {
+                PrincipalVariation variation = variations.get(rank);
+
+                if (rank > 0) {
+                    sb.append('\n');
+                }
+
+                sb.append(index)
+                  .append('\t').append(rank + 1)
+                  .append('\t').append(variation.getX())
+                  .append('\t').append(variation.getY())
+                  .append('\t').append(variation.getScore())
+                  .append('\t').append(depth)
+                  .append('\t').append(search.getNodes())
+                  .append('\t').append(variation);
+            }
+
+            return sb.toString();
+        }
+    }
+
+    /**
+     * This class streams positions from a file.
+     */
+    abstract static class PositionReader implements AutoCloseable {
+
+        /**
+         * Opens {@code fileName}, detecting its format from its first bytes.
+         */
+        static PositionReader open(String fileName, int winningLength)
+                throws IOException {
+            InputStream in = new BufferedInputStream(
+                    new FileInputStream(fileName));
+
+            in.mark(GameRecordWriter.MAGIC.length);
+
+            boolean binary = true;
+
+            for (byte magicByte : GameRecordWriter.MAGIC) {
+                if (in.read() != magicByte) {
+                    binary = false;
+                    break;
+                }
+            }
+
+            in.reset();
+
+            if (binary) {
+                return new BinaryPositionReader(new GameRecordReader(in));
+            }
+
+            return new TextPositionReader(
+                    new BufferedReader(new InputStreamReader(
+                            in, StandardCharsets.UTF_8)),
+                    winningLength);
+        }
+
+        /**
+         * Returns the next position, or {@code null} if there are no more.
+         */
+        abstract Position next() throws IOException;
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+
+    private static final class TextPositionReader extends PositionReader {
+
+        private final BufferedReader reader;
+        private final int winningLength;
+        private final List<String> rows = new ArrayList<>();
+        private long lineNumber;
+
+        TextPositionReader(BufferedReader reader, int winningLength) {
+            this.reader = reader;
+            this.winningLength = winningLength;
+        }
+
+        @Override
+        Position next() throws IOException {
+            rows.clear();
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.startsWith("#")) {
+                    continue;
+                }
+
+                if (line.trim().isEmpty()) {
+                    if (rows.isEmpty()) {
+                        continue;
+                    }
+
+                    break;
+                }
+
+                rows.add(line);
+            }
+
+            if (rows.isEmpty()) {
+                return null;
+            }
+
+            // Small boards are played to their full size.
+            int width = rows.get(0).replaceAll("\\s", "").length();
+            int k = Math.min(winningLength, Math.min(width, rows.size()));
+
+            try {
+                TicTacToeGrid grid = TicTacToeGrid.parse(rows, k);
+
+                return new Position(grid, grid.getPlayerToMove());
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Bad position ending at line " +
+                                      lineNumber + ": " + ex.getMessage(),
+                                      ex);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class BinaryPositionReader extends PositionReader {
+
+        private final GameRecordReader reader;
+        private GameRecord record;
+        private TicTacToeGrid grid;
+        private int nextMove;
+
+        BinaryPositionReader(GameRecordReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        Position next() throws IOException {
+            while (true) {
+                if (record == null
+                        || nextMove >= record.getNumberOfMoves()) {
+                    record = reader.read();
+                    nextMove = 0;
+
+                    if (record == null) {
+                        return null;
+                    }
+
+                    grid = record.replay(0);
+                } else {
+                    grid.mark(record.getMoveX(nextMove - 1),
+                              record.getMoveY(nextMove - 1),
+                              record.getPlayer(nextMove - 1));
+                }
+
+                Mark player = record.getPlayer(nextMove);
+                nextMove++;
+
+                if (grid.getWinner() == null) {
+                    return new Position(new TicTacToeGrid(grid), player);
+                }
+
+                // The game is over; skip the rest of it.
+                nextMove = record.getNumberOfMoves();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package net.coderodde.game.crosses;
+
+import java.util.Arrays;
+
+/**
+ * This class maintains, as bit masks, the set of empty cells that lie within a
+ * given Chebyshev radius of at least one mark. Each row of the grid is stored
+ * in {@code ceil(width / 64)} consecutive words.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+final class CandidateMask {
+
+    private final int width;
+    private final int height;
+    private final int radius;
+    private final int wordsPerRow;
+
+    /**
+     * Bit {@code x} of row {@code y} is set if the cell {@code (x, y)} holds a
+     * mark.
+     */
+    private final long[] occupied;
+
+    /**
+     * Bit {@code x} of row {@code y} is set if the cell {@code (x, y)} is
+     * within {@code radius} of a mark.
+     */
+    private final long[] neighborhood;
+
+    private int marks;
+
+    CandidateMask(int width, int height, int radius) {
+        this.width = width;
+        this.height = height;
+        this.radius = radius;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.occupied = new long[height * wordsPerRow];
+        this.neighborhood = new long[height * wordsPerRow];
+    }
+
+    CandidateMask(CandidateMask other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.radius = other.radius;
+        this.wordsPerRow = other.wordsPerRow;
+        this.occupied = other.occupied.clone();
+        this.neighborhood = other.neighborhood.clone();
+        this.marks = other.marks;
+    }
+
+    /**
+     * Builds the candidate mask of {@code grid} from scratch by dilating its
+     * occupancy mask first horizontally and then vertically.
+     *
+     * @param grid   the grid to process.
+     * @param radius the Chebyshev radius.
+     * @return the candidate mask.
+     */
+    static CandidateMask build(TicTacToeGrid grid, int radius) {
+        CandidateMask mask = new CandidateMask(grid.getWidth(),
+                                               grid.getHeight(),
+                                               radius);
+
+        for (int y = 0; y < mask.height; ++y) {
+            for (int x = 0; x < mask.width; ++x) {
+                if (grid.read(x, y) != null) {
+                    mask.occupied[mask.index(x, y)] |= 1L << x;
+                    mask.marks++;
+                }
+            }
+        }
+
+        long[] horizontal = mask.occupied.clone();
+        long[] shifted = new long[mask.wordsPerRow];
+
+        for (int y = 0; y < mask.height; ++y) {
+            int offset = y * mask.wordsPerRow;
+
+            for (int step = 0; step < radius; ++step) {
+                mask.dilateRowByOne(horizontal, offset, shifted);
+            }
+        }
+
+        for (int y = 0; y < mask.height; ++y) {
+            int fromRow = Math.max(0, y - radius);
+            int toRow   = Math.min(mask.height - 1, y + radius);
+
+            for (int row = fromRow; row <= toRow; ++row) {
+                for (int w = 0; w < mask.wordsPerRow; ++w) {
+                    mask.neighborhood[y * mask.wordsPerRow + w] |=
+                            horizontal[row * mask.wordsPerRow + w];
+                }
+            }
+        }
+
+        return mask;
+    }
+
+    int getRadius() {
+        return radius;
+    }
+
+    boolean isEmpty() {
+        return marks == 0;
+    }
+
+    /**
+     * Records a new mark at {@code (x, y)} and adds its neighborhood to the
+     * candidates.
+     *
+     * @param x the X-coordinate of the new mark.
+     * @param y the Y-coordinate of the new mark.
+     */
+    void add(int x, int y) {
+        occupied[index(x, y)] |= 1L << x;
+        marks++;
+
+        int fromX = Math.max(0, x - radius);
+        int toX   = Math.min(width - 1, x + radius);
+        int fromY = Math.max(0, y - radius);
+        int toY   = Math.min(height - 1, y + radius);
+
+        for (int row = fromY; row <= toY; ++row) {
+            setRange(row, fromX, toX);
+        }
+    }
+
+    /**
+     * Returns the packed indices {@code y * width + x} of all candidate cells
+     * in row-major order.
+     *
+     * @return the candidate cell indices.
+     */
+    int[] getCandidates() {
+        int count = 0;
+
+        for (int i = 0; i < occupied.length; ++i) {
+            count += Long.bitCount(neighborhood[i] & ~occupied[i]);
+        }
+
+        int[] candidates = new int[count];
+        int size = 0;
+
+        for (int y = 0; y < height; ++y) {
+            for (int w = 0; w < wordsPerRow; ++w) {
+                int i = y * wordsPerRow + w;
+                long bits = neighborhood[i] & ~occupied[i];
+
+                while (bits != 0L) {
+                    int x = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    candidates[size++] = y * width + x;
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+    private int index(int x, int y) {
+        return y * wordsPerRow + (x >>> 6);
+    }
+
+    private void setRange(int row, int fromX, int toX) {
+        int fromWord = fromX >>> 6;
+        int toWord   = toX   >>> 6;
+        int offset   = row * wordsPerRow;
+
+        for (int w = fromWord; w <= toWord; ++w) {
+            long bits = -1L;
+
+            if (w == fromWord) {
+                bits &= -1L << (fromX & 63);
+            }
+
+            if (w == toWord) {
+                bits &= -1L >>> (63 - (toX & 63));
+            }
+
+            neighborhood[offset + w] |= bits;
+        }
+    }
+
+    /**
+     * Replaces the row starting at {@code offset} with its union with the row
+     * shifted by one cell to the left and to the right.
+     */
+    private void dilateRowByOne(long[] rows, int offset, long[] buffer) {
+        Arrays.fill(buffer, 0L);
+
+        for (int w = 0; w < wordsPerRow; ++w) {
+            long word = rows[offset + w];
+            buffer[w] |= word | (word << 1) | (word >>> 1);
+
+            if (w > 0) {
+                buffer[w - 1] |= word << 63;
+            }
+
+            if (w < wordsPerRow - 1) {
+                buffer[w + 1] |= word >>> 63;
+            }
+        }
+
+        int tailBits = width & 63;
+
+        if (tailBits != 0) {
+            buffer[wordsPerRow - 1] &= (1L << tailBits) - 1;
+        }
+
+        System.arraycopy(buffer, 0, rows, offset, wordsPerRow);
+    }
+}
@@ -0,0 +1,118 @@
+package net.coderodde.game.crosses;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * This class implements a progress listener that may be called from any
+ * thread. The calls only update lock-free counters; a Swing timer samples the
+ * counters on the Event Dispatch Thread at a fixed rate and forwards the
+ * accumulated progress to the delegate listener, which is thus only ever
+ * called on the Event Dispatch Thread.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class CoalescingProgressListener implements AIProgressListener {
+
+    /**
+     * The default number of milliseconds between two publications.
+     */
+    public static final int DEFAULT_PUBLISH_INTERVAL = 50;
+
+    private final AIProgressListener delegate;
+    private final Timer timer;
+
+    /**
+     * Incremented on each call to {@link #start(int)}.
+     */
+    private final AtomicInteger startedGeneration = new AtomicInteger();
+
+    /**
+     * The generation whose {@link #done()} has been called.
+     */
+    private final AtomicInteger doneGeneration = new AtomicInteger();
+
+    private final LongAdder completedTokens = new LongAdder();
+
+    private volatile int totalTokens;
+
+    // The following fields are accessed only on the Event Dispatch Thread.
+    private int     publishedGeneration;
+    private long    publishedTokens;
+    private boolean delegateStarted;
+
+    public CoalescingProgressListener(AIProgressListener delegate) {
+        this(delegate, DEFAULT_PUBLISH_INTERVAL);
+    }
+
+    public CoalescingProgressListener(AIProgressListener delegate,
+                                      int publishInterval) {
+        this.delegate = delegate;
+        this.timer = new Timer(publishInterval, new ActionListener() {
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                publish();
+            }
+        });
+    }
+
+    @Override
+    public void start(int totalProgressTokens) {
+        totalTokens = totalProgressTokens;
+        completedTokens.reset();
+        startedGeneration.incrementAndGet();
+        timer.start();
+    }
+
+    @Override
+    public void increment(int progressTokens) {
+        completedTokens.add(progressTokens);
+    }
+
+    @Override
+    public void done() {
+        doneGeneration.set(startedGeneration.get());
+
+        if (SwingUtilities.isEventDispatchThread()) {
+            publish();
+        }
+    }
+
+    /**
+     * Forwards the progress made since the previous call to the delegate.
+     * Runs on the Event Dispatch Thread.
+     */
+    private void publish() {
+        int generation = startedGeneration.get();
+
+        if (generation != publishedGeneration) {
+            if (delegateStarted) {
+                delegate.done();
+            }
+
+            delegate.start(totalTokens);
+            delegateStarted = true;
+            publishedGeneration = generation;
+            publishedTokens = 0;
+        }
+
+        long completed = completedTokens.sum();
+
+        if (completed > publishedTokens) {
+            delegate.increment((int)(completed - publishedTokens));
+            publishedTokens = completed;
+        }
+
+        if (doneGeneration.get() == generation && delegateStarted) {
+            delegate.done();
+            delegateStarted = false;
+            timer.stop();
+        }
+    }
+}
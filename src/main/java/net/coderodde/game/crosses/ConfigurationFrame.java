@@ -6,6 +6,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -23,15 +24,32 @@ import static net.coderodde.game.crosses.Application.centerFrame;
  */
 public class ConfigurationFrame extends JFrame {
 
+    /**
+     * The default time in milliseconds the AI may spend on a move when the 
+     * search is bounded by time rather than by depth.
+     */
+    private static final int DEFAULT_TIME = 2000;
+
+    /**
+     * The text of the depth field asking the depth of the alpha-beta engines
+     * to be chosen so that each move takes about the AI time.
+     */
+    private static final String AUTOMATIC_DEPTH = "auto";
+
     private final JTextField heightField;
     private final JTextField widthField;
     private final JTextField patternLengthField;
     private final JTextField depthField;
+    private final JTextField timeField;
+
+    private final JComboBox<EngineType> engineComboBox;
 
     private final JLabel heightLabel;
     private final JLabel widthLabel;
     private final JLabel patternLengthLabel;
     private final JLabel depthLabel;
+    private final JLabel timeLabel;
+    private final JLabel engineLabel;
 
     private final JButton startGameButton;
 
@@ -50,10 +68,17 @@ public class ConfigurationFrame extends JFrame {
         this.widthField         = new JTextField("" + width);
         this.patternLengthField = new JTextField("" + patternLength);
         this.depthField         = new JTextField("" + depth);
+        this.timeField          = new JTextField("" + DEFAULT_TIME);
+        this.engineComboBox     = new JComboBox<>(EngineType.values());
         this.heightLabel        = new JLabel("Field height");
         this.widthLabel         = new JLabel("Field width");
         this.patternLengthLabel = new JLabel("Winning pattern length");
         this.depthLabel         = new JLabel("AI depth");
+
+        depthField.setToolTipText("A search depth, or \"" + AUTOMATIC_DEPTH +
+                                  "\" to fit the AI time");
+        this.timeLabel          = new JLabel("AI time (ms)");
+        this.engineLabel        = new JLabel("AI engine");
         this.startGameButton    = new JButton("Start");
 
         this.gameFrame = new GameFrame(this);
@@ -64,6 +89,8 @@ public class ConfigurationFrame extends JFrame {
         widthLabel        .setBorder(labelBorder);
         patternLengthLabel.setBorder(labelBorder);
         depthLabel.        setBorder(labelBorder);
+        timeLabel         .setBorder(labelBorder);
+        engineLabel       .setBorder(labelBorder);
 
         Border panelBorder = BorderFactory.createLineBorder(Color.RED);
 
@@ -71,16 +98,22 @@ public class ConfigurationFrame extends JFrame {
         JPanel widthPanel         = new JPanel();
         JPanel patternLengthPanel = new JPanel();
         JPanel depthPanel         = new JPanel();
+        JPanel timePanel          = new JPanel();
+        JPanel enginePanel        = new JPanel();
 
         heightPanel        .setBorder(panelBorder);
         widthPanel         .setBorder(panelBorder);
         patternLengthPanel .setBorder(panelBorder);
         depthPanel         .setBorder(panelBorder);
+        timePanel          .setBorder(panelBorder);
+        enginePanel        .setBorder(panelBorder);
 
         heightPanel        .setLayout(new GridLayout(1, 2));
         widthPanel         .setLayout(new GridLayout(1, 2));
         patternLengthPanel .setLayout(new GridLayout(1, 2));
         depthPanel         .setLayout(new GridLayout(1, 2));
+        timePanel          .setLayout(new GridLayout(1, 2));
+        enginePanel        .setLayout(new GridLayout(1, 2));
 
         heightPanel.add(heightLabel);
         heightPanel.add(heightField);
@@ -94,19 +127,28 @@ public class ConfigurationFrame extends JFrame {
         depthPanel.add(depthLabel);
         depthPanel.add(depthField);
 
-        getContentPane().setLayout(new GridLayout(5, 1, 20, 10));
+        timePanel.add(timeLabel);
+        timePanel.add(timeField);
+
+        enginePanel.add(engineLabel);
+        enginePanel.add(engineComboBox);
+
+        getContentPane().setLayout(new GridLayout(7, 1, 20, 10));
 
         getContentPane().add(heightPanel);
         getContentPane().add(widthPanel);
         getContentPane().add(patternLengthPanel);
+        getContentPane().add(enginePanel);
         getContentPane().add(depthPanel);
+        getContentPane().add(timePanel);
         getContentPane().add(startGameButton);
 
         StartButtonActionListener startButtonActionListener = 
                 new StartButtonActionListener(heightField,
                                               widthField,
                                               patternLengthField,
-                                              depthField);
+                                              depthField,
+                                              timeField);
 
         startGameButton.addActionListener(startButtonActionListener);
 
@@ -131,7 +173,17 @@ public class ConfigurationFrame extends JFrame {
     }
 
     public void setDepth(int depth) {
-        this.depthField.setText("" + depth);
+        this.depthField.setText(depth == DepthController.AUTOMATIC_DEPTH ?
+                                AUTOMATIC_DEPTH :
+                                "" + depth);
+    }
+
+    public void setTime(int time) {
+        this.timeField.setText("" + time);
+    }
+
+    public void setEngineType(EngineType engineType) {
+        this.engineComboBox.setSelectedItem(engineType);
     }
 
     private class StartButtonActionListener implements ActionListener {
@@ -140,17 +192,20 @@ public class ConfigurationFrame extends JFrame {
         private final JTextField widthField;
         private final JTextField patternLengthField;
         private final JTextField depthField;
+        private final JTextField timeField;
 
         private TicTacToeGrid resultGrid;
 
         StartButtonActionListener(JTextField heightField,
                                   JTextField widthField,
                                   JTextField patternLengthField,
-                                  JTextField depthField) {
+                                  JTextField depthField,
+                                  JTextField timeField) {
             this.heightField        = heightField;
             this.widthField         = widthField;
             this.patternLengthField = patternLengthField;
             this.depthField         = depthField;
+            this.timeField          = timeField;
         }
 
         @Override
@@ -243,7 +298,16 @@ public class ConfigurationFrame extends JFrame {
             int depth;
 
             try {
-                depth = Integer.parseInt(stmp);
+                if (stmp.equalsIgnoreCase(AUTOMATIC_DEPTH)) {
+                    depth = DepthController.AUTOMATIC_DEPTH;
+                } else {
+                    depth = Integer.parseInt(stmp);
+
+                    if (depth < 0) {
+                        // Only the text "auto" asks for an automatic depth.
+                        throw new NumberFormatException(stmp);
+                    }
+                }
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(
                         ConfigurationFrame.this, 
@@ -253,6 +317,33 @@ public class ConfigurationFrame extends JFrame {
                 return;
             }
 
+            stmp = timeField.getText().trim();
+
+            if (stmp.isEmpty()) {
+                JOptionPane.showMessageDialog(
+                        ConfigurationFrame.this,
+                        "Please input the AI time.",
+                        "Input error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            int time;
+
+            try {
+                time = Integer.parseInt(stmp);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(
+                        ConfigurationFrame.this, 
+                        "Bad time: " + stmp, 
+                        "Input error", 
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            EngineType engineType = 
+                    (EngineType) engineComboBox.getSelectedItem();
+
             try {
               resultGrid = new TicTacToeGrid(height, width, patternLength); 
             } catch (Exception ex) {
@@ -265,7 +356,7 @@ public class ConfigurationFrame extends JFrame {
             }
 
             ConfigurationFrame.this.setVisible(false);
-            gameFrame.startGame(resultGrid, depth);
+            gameFrame.startGame(resultGrid, depth, engineType, time);
             gameFrame.setVisible(true);
         }
     }
@@ -0,0 +1,146 @@
+package net.coderodde.game.crosses;
+
+/**
+ * This class chooses the depth of the alpha-beta searches of the AI so that
+ * each move takes about a target time. It models the number of nodes a search
+ * of depth <tt>d</tt> visits as
+ * <pre>
+ * nodes(d) = m * b^d,  b = m^e
+ * </pre>
+ * where <tt>m</tt> is the number of moves at the root, <tt>b</tt> is the
+ * effective branching factor and <tt>e</tt> is the exponent relating the two.
+ * Expressing the branching factor through <tt>m</tt> lets one learned
+ * exponent carry over as the board fills up and between board sizes, since
+ * a board offering more candidate cells branches more at every ply. The
+ * predicted time of a search is {@code nodes(d)} over the measured speed in
+ * nodes per second.
+ * <p>
+ * Both the exponent and the speed start from conservative guesses and are
+ * updated after each search by an exponential moving average, so that the
+ * choices keep improving during the session. One controller should be kept
+ * per engine, since the engines differ in both.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class DepthController {
+
+    /**
+     * The depth asking for the depth to be chosen by a controller.
+     */
+    public static final int AUTOMATIC_DEPTH = -1;
+
+    /**
+     * The deepest search ever chosen.
+     */
+    static final int MAXIMUM_DEPTH = 20;
+
+    /**
+     * The exponent assumed before the first search. Corresponds to the
+     * branching factor of alpha-beta with a perfect move ordering.
+     */
+    private static final double INITIAL_EXPONENT = 0.5;
+
+    /**
+     * The speed assumed before the first search.
+     */
+    private static final double INITIAL_NODES_PER_SECOND = 20000.0;
+
+    /**
+     * The weight of the latest search in the moving averages.
+     */
+    private static final double LEARNING_RATE = 0.5;
+
+    /**
+     * The searches shorter than this do not update the speed, as their
+     * timing is dominated by noise.
+     */
+    private static final long MINIMUM_TIMED_NANOS = 5000000L;
+
+    private double exponent       = INITIAL_EXPONENT;
+    private double nodesPerSecond = INITIAL_NODES_PER_SECOND;
+    private int    searches;
+
+    /**
+     * Returns the deepest depth whose search is predicted to take at most
+     * {@code targetMillis} milliseconds.
+     *
+     * @param rootMoves    the number of moves at the root.
+     * @param emptyCells   the number of empty cells of the board.
+     * @param targetMillis the target time of the search.
+     * @return the depth, at least zero.
+     */
+    public synchronized int chooseDepth(int rootMoves,
+                                        int emptyCells,
+                                        long targetMillis) {
+        if (rootMoves <= 1) {
+            return 0;
+        }
+
+        int maximumDepth = Math.min(MAXIMUM_DEPTH, emptyCells - 1);
+        int depth = 0;
+
+        while (depth < maximumDepth
+                && predictMillis(rootMoves, depth + 1) <= targetMillis) {
+            depth++;
+        }
+
+        return depth;
+    }
+
+    /**
+     * Returns the predicted time of a search.
+     *
+     * @param rootMoves the number of moves at the root.
+     * @param depth     the depth of the search.
+     * @return the predicted time in milliseconds.
+     */
+    public synchronized double predictMillis(int rootMoves, int depth) {
+        double nodes = rootMoves * Math.pow(rootMoves, exponent * depth);
+        return 1000.0 * nodes / nodesPerSecond;
+    }
+
+    /**
+     * Learns from a finished search.
+     *
+     * @param rootMoves the number of moves at the root.
+     * @param depth     the depth of the search.
+     * @param nodes     the number of nodes the search visited.
+     * @param nanos     the duration of the search in nanoseconds.
+     */
+    public synchronized void searchFinished(int rootMoves,
+                                            int depth,
+                                            long nodes,
+                                            long nanos) {
+        if (rootMoves > 1 && depth > 0 && nodes > rootMoves) {
+            double observedExponent = Math.log((double) nodes / rootMoves) /
+                                      (depth * Math.log(rootMoves));
+            exponent += LEARNING_RATE * (observedExponent - exponent);
+        }
+
+        if (nanos >= MINIMUM_TIMED_NANOS && nodes > 0) {
+            double observedSpeed = nodes / (nanos / 1e9);
+            nodesPerSecond += LEARNING_RATE * (observedSpeed - nodesPerSecond);
+        }
+
+        searches++;
+    }
+
+    /**
+     * Returns the current estimate of the effective branching factor.
+     *
+     * @param rootMoves the number of moves at the root.
+     * @return the branching factor.
+     */
+    public synchronized double getBranchingFactor(int rootMoves) {
+        return Math.pow(rootMoves, exponent);
+    }
+
+    public synchronized double getNodesPerSecond() {
+        return nodesPerSecond;
+    }
+
+    public synchronized int getSearches() {
+        return searches;
+    }
+}
@@ -0,0 +1,140 @@
+package net.coderodde.game.crosses;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This class defines the binary protocol between the coordinator of a
+ * distributed search, {@link DistributedSearch}, and its workers,
+ * {@link SearchWorker}. Each message is a type byte followed by its fields,
+ * written by {@link DataOutput}:
+ * <pre>
+ * HELLO   worker to coordinator  int threads
+ * JOB     coordinator to worker  int job, byte player, short depth,
+ *                                byte pruning, position
+ * TASK    coordinator to worker  int job, int task, int cell
+ * STEAL   coordinator to worker  int job, short count
+ * RESULT  worker to coordinator  int job, int task, int value, long nodes
+ * STOLEN  worker to coordinator  int job, short count, int task...
+ * </pre>
+ * A job is the search of one root position. Its tasks are the root moves,
+ * each given by the packed index of the cell it marks. A worker queues the
+ * tasks it is sent and answers a {@code STEAL} by giving back up to
+ * {@code count} of the tasks it has not started yet, the last queued first.
+ * <p>
+ * A position is written as its width, its height and its winning length,
+ * each a short, followed by the cells in row-major order, two bits each:
+ * <tt>0</tt> for an empty cell, <tt>1</tt> for <tt>X</tt> and <tt>2</tt> for
+ * <tt>O</tt>. A 15 by 15 board takes 63 bytes.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+final class DistributedProtocol {
+
+    static final byte HELLO  = 1;
+    static final byte JOB    = 2;
+    static final byte TASK   = 3;
+    static final byte STEAL  = 4;
+    static final byte RESULT = 5;
+    static final byte STOLEN = 6;
+
+    private static final int LATE_MOVE_REDUCTIONS = 1;
+    private static final int FUTILITY_PRUNING     = 2;
+    private static final int FORCING_EXTENSION    = 4;
+
+    private static final int CELLS_PER_BYTE = 4;
+    private static final int BITS_PER_CELL  = 2;
+    private static final int CELL_MASK      = 3;
+
+    private DistributedProtocol() {}
+
+    static void writePosition(DataOutput out, TicTacToeGrid grid)
+            throws IOException {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int cells = width * height;
+
+        out.writeShort(width);
+        out.writeShort(height);
+        out.writeShort(grid.getWinningLength());
+
+        byte[] packed = new byte[(cells + CELLS_PER_BYTE - 1) /
+                                 CELLS_PER_BYTE];
+
+        for (int cell = 0; cell < cells; ++cell) {
+            Mark mark = grid.read(cell % width, cell / width);
+            int code = mark == null ? 0 : (mark == Mark.X ? 1 : 2);
+
+            packed[cell / CELLS_PER_BYTE] |=
+                    code << (BITS_PER_CELL * (cell % CELLS_PER_BYTE));
+        }
+
+        out.write(packed);
+    }
+
+    static TicTacToeGrid readPosition(DataInput in) throws IOException {
+        int width = in.readShort();
+        int height = in.readShort();
+        int winningLength = in.readShort();
+        TicTacToeGrid grid;
+
+        try {
+            grid = new TicTacToeGrid(height, width, winningLength);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Bad position: " + ex.getMessage(), ex);
+        }
+
+        int cells = width * height;
+        byte[] packed = new byte[(cells + CELLS_PER_BYTE - 1) /
+                                 CELLS_PER_BYTE];
+
+        in.readFully(packed);
+
+        for (int cell = 0; cell < cells; ++cell) {
+            int code = (packed[cell / CELLS_PER_BYTE]
+                            >>> (BITS_PER_CELL * (cell % CELLS_PER_BYTE)))
+                       & CELL_MASK;
+
+            if (code == 1) {
+                grid.mark(cell % width, cell / width, Mark.X);
+            } else if (code == 2) {
+                grid.mark(cell % width, cell / width, Mark.O);
+            } else if (code != 0) {
+                throw new IOException("Bad cell code: " + code);
+            }
+        }
+
+        return grid;
+    }
+
+    static void writePlayer(DataOutput out, Mark player) throws IOException {
+        out.writeByte(player == Mark.X ? 0 : 1);
+    }
+
+    static Mark readPlayer(DataInput in) throws IOException {
+        return in.readByte() == 0 ? Mark.X : Mark.O;
+    }
+
+    static void writePruningOptions(DataOutput out,
+                                    PruningOptions pruningOptions)
+            throws IOException {
+        out.writeByte(
+                (pruningOptions.isLateMoveReductions() ?
+                        LATE_MOVE_REDUCTIONS : 0) |
+                (pruningOptions.isFutilityPruning() ?
+                        FUTILITY_PRUNING : 0) |
+                (pruningOptions.isForcingExtension() ?
+                        FORCING_EXTENSION : 0));
+    }
+
+    static PruningOptions readPruningOptions(DataInput in)
+            throws IOException {
+        int flags = in.readByte();
+
+        return new PruningOptions((flags & LATE_MOVE_REDUCTIONS) != 0,
+                                  (flags & FUTILITY_PRUNING) != 0,
+                                  (flags & FORCING_EXTENSION) != 0);
+    }
+}
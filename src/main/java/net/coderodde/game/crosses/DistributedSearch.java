@@ -0,0 +1,662 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This class coordinates the search of the root moves of a position by
+ * {@link SearchWorker}s running in other JVMs and listening on ports of the
+ * loopback interface. The root moves are those of the {@link MoveGenerator},
+ * and each is searched by one worker to the full depth with the full window,
+ * just like by the search threads of the AI. The best move is then chosen in
+ * the same way: the first one of the best value in the order of the move
+ * generator.
+ * <p>
+ * The load is balanced dynamically. Each worker is first sent twice as many
+ * root moves as it has threads, and one more each time it returns a result.
+ * Once no moves are left to send, a worker running out of work steals, via
+ * the coordinator, half of the moves another worker has queued but not
+ * started. A worker that fails has its moves given to the others.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class DistributedSearch {
+
+    /**
+     * The name of the system property listing the ports of the workers,
+     * separated by commas. The AI uses the workers if the property is set.
+     */
+    public static final String WORKERS_PROPERTY_NAME = "crosses.workers";
+
+    private static final String USAGE =
+            "Usage: DistributedSearch -w PORT[,PORT...] [-d DEPTH] " +
+            "[-k WINNING_LENGTH] POSITION_FILE";
+
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int DEFAULT_WINNING_LENGTH = 5;
+
+    /**
+     * The number of root moves per thread of a worker kept queued on it.
+     */
+    private static final int TASKS_PER_THREAD = 2;
+
+    private final List<Integer>  ports;
+    private final MoveGenerator  moveGenerator;
+    private final PruningOptions pruningOptions;
+
+    private int nextJobId;
+
+    public DistributedSearch(List<Integer> ports,
+                             MoveGenerator moveGenerator,
+                             PruningOptions pruningOptions) {
+        if (ports.isEmpty()) {
+            throw new IllegalArgumentException("No workers.");
+        }
+
+        this.ports = new ArrayList<>(ports);
+        this.moveGenerator = moveGenerator;
+        this.pruningOptions = pruningOptions;
+    }
+
+    /**
+     * Returns the search over the workers listed by the system property
+     * {@value #WORKERS_PROPERTY_NAME}.
+     *
+     * @param moveGenerator  the generator of the root moves.
+     * @param pruningOptions the options of the searches of the workers.
+     * @return the search, or {@code null} if the property is not set.
+     */
+    public static DistributedSearch fromSystemProperties(
+            MoveGenerator moveGenerator,
+            PruningOptions pruningOptions) {
+        String value = System.getProperty(WORKERS_PROPERTY_NAME);
+
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+
+        return new DistributedSearch(parsePorts(value),
+                                     moveGenerator,
+                                     pruningOptions);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> ports = null;
+        int depth = DEFAULT_DEPTH;
+        int winningLength = DEFAULT_WINNING_LENGTH;
+        String fileName = null;
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "-w":
+                        ports = parsePorts(args[++i]);
+                        break;
+
+                    case "-d":
+                        depth = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-k":
+                        winningLength = Integer.parseInt(args[++i]);
+                        break;
+
+                    default:
+                        if (args[i].startsWith("-") || fileName != null) {
+                            throw new IllegalArgumentException(args[i]);
+                        }
+
+                        fileName = args[i];
+                }
+            }
+
+            if (ports == null || fileName == null) {
+                throw new IllegalArgumentException();
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        List<String> rows = new ArrayList<>();
+
+        for (String line : Files.readAllLines(Paths.get(fileName),
+                                              StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                rows.add(line);
+            }
+        }
+
+        TicTacToeGrid grid = TicTacToeGrid.parse(rows, winningLength);
+        DistributedSearch search =
+                new DistributedSearch(ports,
+                                      new NeighborhoodMoveGenerator(),
+                                      PruningOptions.fromSystemProperties());
+
+        long startTime = System.currentTimeMillis();
+        SearchResult result = search.search(grid,
+                                            grid.getPlayerToMove(),
+                                            depth);
+        long endTime = System.currentTimeMillis();
+
+        if (result == null) {
+            System.out.println("No moves.");
+            return;
+        }
+
+        System.out.println("Best move " + result.getBestX() + "," +
+                           result.getBestY() + ", score " +
+                           result.getScore() + ", " + result.getNodes() +
+                           " nodes in " + (endTime - startTime) +
+                           " milliseconds.");
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid}.
+     *
+     * @param grid   the position to search.
+     * @param player the player to move.
+     * @param depth  the search depth below the root moves.
+     * @return the search result, or {@code null} if there are no moves.
+     * @throws IOException if no worker could complete the search.
+     */
+    public SearchResult search(TicTacToeGrid grid, Mark player, int depth)
+            throws IOException {
+        return search(grid, player, depth, null);
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid},
+     * reporting one progress token per root move.
+     *
+     * @param grid             the position to search.
+     * @param player           the player to move.
+     * @param depth            the search depth below the root moves.
+     * @param progressListener the progress listener, or {@code null}.
+     * @return the search result, or {@code null} if there are no moves.
+     * @throws IOException if no worker could complete the search.
+     */
+    public SearchResult search(TicTacToeGrid grid,
+                               Mark player,
+                               int depth,
+                               AIProgressListener progressListener)
+            throws IOException {
+        List<TicTacToeGrid> children = moveGenerator.generateMoves(grid,
+                                                                   player);
+        if (children.isEmpty()) {
+            return null;
+        }
+
+        if (progressListener != null) {
+            progressListener.start(children.size());
+        }
+
+        Job job = new Job(nextJobId++, grid, player, depth, children);
+
+        try {
+            job.run(progressListener);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted.", ex);
+        } finally {
+            job.close();
+        }
+
+        // Choose as the search threads of the AI do.
+        int bestIndex = 0;
+        long nodes = 0;
+
+        for (int i = 0; i < children.size(); ++i) {
+            if (player.equals(Mark.X) ?
+                    job.values[i] > job.values[bestIndex] :
+                    job.values[i] < job.values[bestIndex]) {
+                bestIndex = i;
+            }
+
+            nodes += job.nodes[i];
+        }
+
+        TicTacToeGrid bestState = children.get(bestIndex);
+        int cell = bestState.getAddedCell(grid);
+
+        return new SearchResult(bestState,
+                                cell % grid.getWidth(),
+                                cell / grid.getWidth(),
+                                job.values[bestIndex],
+                                depth,
+                                nodes);
+    }
+
+    private static List<Integer> parsePorts(String value) {
+        List<Integer> ports = new ArrayList<>();
+
+        for (String port : value.split(",")) {
+            ports.add(Integer.parseInt(port.trim()));
+        }
+
+        return ports;
+    }
+
+    /**
+     * A message from a worker, or the news of its failure.
+     */
+    private static final class Event {
+
+        final Worker worker;
+        final byte type;
+        final int jobId;
+        final int[] tasks;
+        final int value;
+        final long nodes;
+
+        Event(Worker worker,
+              byte type,
+              int jobId,
+              int[] tasks,
+              int value,
+              long nodes) {
+            this.worker = worker;
+            this.type = type;
+            this.jobId = jobId;
+            this.tasks = tasks;
+            this.value = value;
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Marks the failure of a worker among the events.
+     */
+    private static final byte FAILED = -1;
+
+    /**
+     * The connection to one worker during a job.
+     */
+    private static final class Worker {
+
+        final int port;
+        final Socket socket;
+        final DataInputStream  in;
+        final DataOutputStream out;
+        final int threads;
+
+        /**
+         * The tasks sent to this worker whose results are not in yet.
+         */
+        final Set<Integer> assigned = new LinkedHashSet<>();
+
+        /**
+         * Set while a steal request to this worker is unanswered.
+         */
+        boolean stealPending;
+
+        /**
+         * The workers waiting for the tasks stolen from this one.
+         */
+        final Deque<Worker> thieves = new ArrayDeque<>();
+
+        boolean failed;
+
+        Worker(int port) throws IOException {
+            this.port = port;
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+
+            if (in.readByte() != DistributedProtocol.HELLO) {
+                socket.close();
+                throw new IOException("Not a search worker on port " + port);
+            }
+
+            this.threads = Math.max(1, in.readInt());
+        }
+
+        /**
+         * Returns the number of tasks queued on this worker beyond its
+         * threads.
+         */
+        int getQueued() {
+            return assigned.size() - threads;
+        }
+    }
+
+    /**
+     * The search of one root position.
+     */
+    private final class Job {
+
+        final int id;
+        final TicTacToeGrid grid;
+        final Mark player;
+        final int depth;
+        final List<TicTacToeGrid> children;
+
+        final int[]  values;
+        final long[] nodes;
+        final boolean[] done;
+
+        final Deque<Integer> pending = new ArrayDeque<>();
+        final List<Worker> workers = new ArrayList<>();
+        final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+        int remaining;
+
+        Job(int id,
+            TicTacToeGrid grid,
+            Mark player,
+            int depth,
+            List<TicTacToeGrid> children) {
+            this.id = id;
+            this.grid = grid;
+            this.player = player;
+            this.depth = depth;
+            this.children = children;
+            this.values = new int[children.size()];
+            this.nodes = new long[children.size()];
+            this.done = new boolean[children.size()];
+            this.remaining = children.size();
+
+            for (int i = 0; i < children.size(); ++i) {
+                pending.add(i);
+            }
+        }
+
+        void run(AIProgressListener progressListener)
+                throws IOException, InterruptedException {
+            IOException failure = null;
+
+            for (int port : ports) {
+                try {
+                    Worker worker = new Worker(port);
+                    sendJob(worker);
+                    workers.add(worker);
+                    startReader(worker);
+                } catch (IOException ex) {
+                    failure = ex;
+                    System.err.println("Search worker on port " + port +
+                                       " is not available: " + ex);
+                }
+            }
+
+            if (workers.isEmpty()) {
+                throw new IOException("No search workers are available.",
+                                      failure);
+            }
+
+            // Deal the first tasks one at a time so that every worker gets
+            // some of the moves ordered first.
+            boolean dealt = true;
+
+            while (dealt && !pending.isEmpty()) {
+                dealt = false;
+
+                for (Worker worker : workers) {
+                    if (!pending.isEmpty()
+                            && worker.assigned.size() <
+                               TASKS_PER_THREAD * worker.threads) {
+                        assign(worker, pending.poll());
+                        dealt = true;
+                    }
+                }
+            }
+
+            while (remaining > 0) {
+                Event event = events.take();
+                Worker worker = event.worker;
+
+                if (event.type == FAILED) {
+                    fail(worker);
+                    continue;
+                }
+
+                if (event.jobId != id || worker.failed) {
+                    continue;
+                }
+
+                if (event.type == DistributedProtocol.RESULT) {
+                    int task = event.tasks[0];
+
+                    if (worker.assigned.remove(task) && !done[task]) {
+                        done[task] = true;
+                        values[task] = event.value;
+                        nodes[task] = event.nodes;
+                        remaining--;
+
+                        if (progressListener != null) {
+                            progressListener.increment(1);
+                        }
+                    }
+                } else if (event.type == DistributedProtocol.STOLEN) {
+                    handleStolen(worker, event.tasks);
+                }
+
+                feed(worker);
+            }
+        }
+
+        /**
+         * Gives {@code worker} more work: a pending task, or a share of the
+         * tasks queued on the busiest other worker.
+         */
+        private void feed(Worker worker) throws IOException {
+            if (worker.failed) {
+                return;
+            }
+
+            while (!pending.isEmpty()
+                    && worker.assigned.size() <
+                       TASKS_PER_THREAD * worker.threads) {
+                assign(worker, pending.poll());
+            }
+
+            if (!pending.isEmpty()
+                    || worker.assigned.size() >= worker.threads) {
+                return;
+            }
+
+            Worker victim = null;
+
+            for (Worker other : workers) {
+                if (other != worker
+                        && !other.failed
+                        && !other.stealPending
+                        && other.getQueued() > 0
+                        && (victim == null ||
+                            other.getQueued() > victim.getQueued())) {
+                    victim = other;
+                }
+            }
+
+            if (victim == null) {
+                return;
+            }
+
+            int count = Math.min(worker.threads - worker.assigned.size(),
+                                 (victim.getQueued() + 1) / 2);
+
+            victim.stealPending = true;
+            victim.thieves.add(worker);
+
+            try {
+                victim.out.writeByte(DistributedProtocol.STEAL);
+                victim.out.writeInt(id);
+                victim.out.writeShort(count);
+                victim.out.flush();
+            } catch (IOException ex) {
+                fail(victim);
+            }
+        }
+
+        private void handleStolen(Worker victim, int[] tasks)
+                throws IOException {
+            victim.stealPending = false;
+
+            Worker thief = victim.thieves.poll();
+
+            for (int task : tasks) {
+                if (victim.assigned.remove(task) && !done[task]) {
+                    if (thief != null && !thief.failed) {
+                        assign(thief, task);
+                    } else {
+                        pending.addFirst(task);
+                    }
+                }
+            }
+
+            for (Worker worker : workers) {
+                feed(worker);
+            }
+        }
+
+        /**
+         * Drops a failed worker, handing its tasks to the others.
+         */
+        private void fail(Worker worker) throws IOException {
+            if (worker.failed) {
+                return;
+            }
+
+            worker.failed = true;
+            System.err.println("Lost the search worker on port " +
+                               worker.port + ".");
+
+            List<Integer> orphans = new ArrayList<>(worker.assigned);
+
+            for (int i = orphans.size() - 1; i >= 0; --i) {
+                if (!done[orphans.get(i)]) {
+                    pending.addFirst(orphans.get(i));
+                }
+            }
+
+            worker.assigned.clear();
+            close(worker);
+
+            boolean alive = false;
+
+            for (Worker other : workers) {
+                if (!other.failed) {
+                    alive = true;
+                    feed(other);
+                }
+            }
+
+            if (!alive) {
+                throw new IOException("All the search workers failed.");
+            }
+        }
+
+        private void assign(Worker worker, int task) throws IOException {
+            worker.assigned.add(task);
+
+            try {
+                worker.out.writeByte(DistributedProtocol.TASK);
+                worker.out.writeInt(id);
+                worker.out.writeInt(task);
+                worker.out.writeInt(children.get(task).getAddedCell(grid));
+                worker.out.flush();
+            } catch (IOException ex) {
+                fail(worker);
+            }
+        }
+
+        private void sendJob(Worker worker) throws IOException {
+            worker.out.writeByte(DistributedProtocol.JOB);
+            worker.out.writeInt(id);
+            DistributedProtocol.writePlayer(worker.out, player);
+            worker.out.writeShort(depth);
+            DistributedProtocol.writePruningOptions(worker.out,
+                                                    pruningOptions);
+            DistributedProtocol.writePosition(worker.out, grid);
+            worker.out.flush();
+        }
+
+        private void startReader(final Worker worker) {
+            Thread thread = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        while (true) {
+                            events.add(readEvent(worker));
+                        }
+                    } catch (IOException ex) {
+                        events.add(new Event(worker, FAILED, id, null, 0, 0));
+                    }
+                }
+            }, "crosses-coordinator-" + worker.port);
+
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private Event readEvent(Worker worker) throws IOException {
+            byte type = worker.in.readByte();
+            int jobId = worker.in.readInt();
+
+            switch (type) {
+                case DistributedProtocol.RESULT:
+                    int task = worker.in.readInt();
+                    int value = worker.in.readInt();
+                    long nodes = worker.in.readLong();
+
+                    return new Event(worker,
+                                     type,
+                                     jobId,
+                                     new int[]{ task },
+                                     value,
+                                     nodes);
+
+                case DistributedProtocol.STOLEN:
+                    int[] tasks = new int[worker.in.readShort()];
+
+                    for (int i = 0; i < tasks.length; ++i) {
+                        tasks[i] = worker.in.readInt();
+                    }
+
+                    return new Event(worker, type, jobId, tasks, 0, 0);
+
+                default:
+                    throw new IOException("Unknown message: " + type);
+            }
+        }
+
+        /**
+         * Closes the connections, which also stops the searches of the
+         * workers still running.
+         */
+        void close() {
+            for (Worker worker : workers) {
+                close(worker);
+            }
+        }
+
+        private void close(Worker worker) {
+            try {
+                worker.socket.close();
+            } catch (IOException ex) {
+                // Nothing more to do with the worker.
+            }
+        }
+    }
+}
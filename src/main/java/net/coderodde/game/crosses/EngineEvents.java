@@ -0,0 +1,211 @@
+package net.coderodde.game.crosses;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * This class holds the Java Flight Recorder events of the AI engines. The
+ * events show up in any recording next to the garbage collection and CPU
+ * events of the JVM, for example in one started by
+ * <pre>
+ * java -XX:StartFlightRecording=filename=crosses.jfr ...
+ * </pre>
+ * The engines create their events unconditionally but fill and commit them
+ * only if {@link Event#shouldCommit()} says so, which costs next to nothing
+ * while no recording is running.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class EngineEvents {
+
+    private static final String CATEGORY = "Noughts and Crosses";
+
+    private EngineEvents() {}
+
+    /**
+     * Spans the search of one AI move from its start to its end.
+     */
+    @Name("net.coderodde.crosses.Search")
+    @Label("Search")
+    @Category({ CATEGORY, "Engine" })
+    @Description("The search of one AI move.")
+    @StackTrace(false)
+    static final class SearchEvent extends Event {
+
+        @Label("Engine")
+        String engine;
+
+        @Label("Board Width")
+        int boardWidth;
+
+        @Label("Board Height")
+        int boardHeight;
+
+        @Label("Winning Length")
+        int winningLength;
+
+        @Label("Maximum Depth")
+        @Description("The AI depth. Used by the alpha-beta engines.")
+        int maximumDepth;
+
+        @Label("Time Budget")
+        @Description("The AI time. Used by the Monte Carlo engine.")
+        @Timespan(Timespan.MILLISECONDS)
+        long timeBudget;
+
+        @Label("Search Threads")
+        int threads;
+
+        @Label("Pruning")
+        String pruning;
+
+        @Label("Depth Reached")
+        int depth;
+
+        @Label("Nodes")
+        @Description("The visited nodes, or the playouts of the Monte " +
+                     "Carlo engine.")
+        long nodes;
+
+        @Label("Score")
+        int score;
+
+        @Label("Best X")
+        int bestX;
+
+        @Label("Best Y")
+        int bestY;
+    }
+
+    /**
+     * Spans one iteration of an iteratively deepened search.
+     */
+    @Name("net.coderodde.crosses.Iteration")
+    @Label("Search Iteration")
+    @Category({ CATEGORY, "Engine" })
+    @Description("One completed iteration of an iteratively deepened " +
+                 "search.")
+    @StackTrace(false)
+    static final class IterationEvent extends Event {
+
+        @Label("Engine")
+        String engine;
+
+        @Label("Depth")
+        int depth;
+
+        @Label("Nodes")
+        @Description("The nodes visited by the iteration.")
+        long nodes;
+
+        @Label("Score")
+        int score;
+
+        @Label("Best X")
+        int bestX;
+
+        @Label("Best Y")
+        int bestY;
+    }
+
+    /**
+     * Reports the use of the transposition table during one search.
+     */
+    @Name("net.coderodde.crosses.CacheStatistics")
+    @Label("Transposition Table Statistics")
+    @Category({ CATEGORY, "Transposition Table" })
+    @Description("The probes and hits of the transposition table during " +
+                 "one search.")
+    @StackTrace(false)
+    static final class CacheStatisticsEvent extends Event {
+
+        @Label("Engine")
+        String engine;
+
+        @Label("Probes")
+        long probes;
+
+        @Label("Hits")
+        long hits;
+
+        @Label("Hit Rate")
+        @Percentage
+        double hitRate;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        @Label("Generation")
+        @Description("The number of searches the table has served.")
+        int generation;
+    }
+
+    /**
+     * Marks a search that ended before it was done.
+     */
+    @Name("net.coderodde.crosses.SearchCancelled")
+    @Label("Search Cancelled")
+    @Category({ CATEGORY, "Engine" })
+    @Description("A search that was interrupted or failed.")
+    static final class SearchCancelledEvent extends Event {
+
+        @Label("Engine")
+        String engine;
+
+        @Label("Reason")
+        String reason;
+    }
+
+    /**
+     * Fills and commits a {@link CacheStatisticsEvent}.
+     *
+     * @param engine             the name of the engine.
+     * @param transpositionTable the table.
+     * @param probes             the number of probes.
+     * @param hits               the number of hits.
+     */
+    static void commitCacheStatistics(String engine,
+                                      TranspositionTable transpositionTable,
+                                      long probes,
+                                      long hits) {
+        CacheStatisticsEvent event = new CacheStatisticsEvent();
+
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.engine = engine;
+        event.probes = probes;
+        event.hits = hits;
+        event.hitRate = probes == 0 ? 0.0 : (double) hits / probes;
+        event.size = (long) transpositionTable.getCapacity() *
+                     TranspositionTable.SLOT_SIZE;
+        event.generation = transpositionTable.getGeneration();
+        event.commit();
+    }
+
+    /**
+     * Fills and commits a {@link SearchCancelledEvent}.
+     *
+     * @param engine the name of the engine.
+     * @param reason the reason of the cancellation.
+     */
+    static void commitSearchCancelled(String engine, String reason) {
+        SearchCancelledEvent event = new SearchCancelledEvent();
+
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.reason = reason;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package net.coderodde.game.crosses;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class holds the executors shared by all game sessions. The CPU-bound
+ * search runs on a fixed-size pool of platform threads, while the control flow
+ * of each session runs on the executor of its {@link ExecutionMode}. The
+ * analyses nobody waits for, such as the hints, run on a single thread of the
+ * lowest priority.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class EngineExecutors {
+
+    /**
+     * The name of the system property specifying the number of search
+     * threads. Defaults to the number of available processors.
+     */
+    public static final String SEARCH_THREADS_PROPERTY_NAME =
+            "crosses.searchThreads";
+
+    private EngineExecutors() {}
+
+    /**
+     * Returns the fixed-size pool running the actual search.
+     *
+     * @return the search pool.
+     */
+    public static ExecutorService searchPool() {
+        return SearchPoolHolder.POOL;
+    }
+
+    /**
+     * Returns the executor starting a new virtual thread for each session
+     * task. On runtimes without virtual threads, returns a cached pool of
+     * platform threads instead.
+     *
+     * @return the virtual thread executor.
+     */
+    public static Executor virtualThreadExecutor() {
+        return VirtualThreadExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Returns the single-threaded executor of the background analyses. Its
+     * thread runs at the lowest priority so that it yields to the search and
+     * to the user interface.
+     *
+     * @return the background executor.
+     */
+    public static ExecutorService backgroundExecutor() {
+        return BackgroundExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Returns the number of threads in the search pool.
+     *
+     * @return the number of search threads.
+     */
+    public static int getSearchThreadCount() {
+        int threads = Integer.getInteger(
+                SEARCH_THREADS_PROPERTY_NAME,
+                Runtime.getRuntime().availableProcessors());
+
+        return Math.max(1, threads);
+    }
+
+    private static final class SearchPoolHolder {
+
+        static final ExecutorService POOL =
+                Executors.newFixedThreadPool(
+                        getSearchThreadCount(),
+                        new DaemonThreadFactory("crosses-search-"));
+    }
+
+    private static final class BackgroundExecutorHolder {
+
+        static final ExecutorService EXECUTOR =
+                Executors.newSingleThreadExecutor(
+                        new DaemonThreadFactory("crosses-background-",
+                                                Thread.MIN_PRIORITY));
+    }
+
+    private static final class PlatformExecutorHolder {
+
+        static final ExecutorService EXECUTOR =
+                Executors.newCachedThreadPool(
+                        new DaemonThreadFactory("crosses-session-"));
+    }
+
+    private static final class VirtualThreadExecutorHolder {
+
+        static final Executor EXECUTOR = createVirtualThreadExecutor();
+
+        /**
+         * Creates the equivalent of
+         * {@code Executors.newThreadPerTaskExecutor(
+         * Thread.ofVirtual().name("crosses-session-", 0).factory())}. The
+         * calls are made reflectively so that the project still compiles for
+         * and runs on Java 17.
+         */
+        private static Executor createVirtualThreadExecutor() {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual")
+                                             .invoke(null);
+
+                Class<?> builderClass =
+                        Class.forName("java.lang.Thread$Builder");
+
+                builder = builderClass.getMethod("name", String.class,
+                                                         long.class)
+                                      .invoke(builder, "crosses-session-", 0L);
+
+                ThreadFactory factory =
+                        (ThreadFactory) builderClass.getMethod("factory")
+                                                    .invoke(builder);
+
+                Method newThreadPerTaskExecutor =
+                        Executors.class.getMethod("newThreadPerTaskExecutor",
+                                                  ThreadFactory.class);
+
+                return (Executor) newThreadPerTaskExecutor.invoke(null,
+                                                                  factory);
+            } catch (ReflectiveOperationException ex) {
+                System.err.println("Virtual threads are not supported by " +
+                                   "this Java runtime. Falling back to " +
+                                   "platform threads.");
+                return PlatformExecutorHolder.EXECUTOR;
+            }
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final int priority;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        DaemonThreadFactory(String namePrefix) {
+            this(namePrefix, Thread.NORM_PRIORITY);
+        }
+
+        DaemonThreadFactory(String namePrefix, int priority) {
+            this.namePrefix = namePrefix;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                                       namePrefix +
+                                       threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        }
+    }
+}
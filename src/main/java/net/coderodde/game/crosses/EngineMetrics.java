@@ -0,0 +1,378 @@
+package net.coderodde.game.crosses;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements the registry of the telemetry of the engine. All the
+ * counters are {@link LongAdder}s updated once per search or per game, never
+ * per node, so that recording costs nothing measurable even when many
+ * sessions search at once. The gauges of the search pool are read only when
+ * the metrics are written.
+ * <p>
+ * The metrics are written in the text format of Prometheus by
+ * {@link #writePrometheus(StringBuilder)}, which {@link MetricsServer} serves
+ * over HTTP.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class EngineMetrics {
+
+    /**
+     * The upper bounds of the buckets of the move latency histogram in
+     * seconds.
+     */
+    static final double[] LATENCY_BUCKETS = {
+        0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0,
+        60.0
+    };
+
+    private static final EngineMetrics INSTANCE = new EngineMetrics();
+
+    private final EngineStatistics[] engines =
+            new EngineStatistics[EngineType.values().length];
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder tableProbes  = new LongAdder();
+    private final LongAdder tableHits    = new LongAdder();
+    private final LongAdder helperFailures = new LongAdder();
+
+    private EngineMetrics() {
+        for (int i = 0; i < engines.length; ++i) {
+            engines[i] = new EngineStatistics();
+        }
+    }
+
+    /**
+     * Returns the registry shared by all the game sessions.
+     *
+     * @return the registry.
+     */
+    public static EngineMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the start of a game.
+     */
+    public void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    /**
+     * Records the start of a search by {@code engineType}. Must be followed
+     * by {@link #searchFinished} or {@link #searchCancelled}.
+     *
+     * @param engineType the engine.
+     */
+    public void searchStarted(EngineType engineType) {
+        engines[engineType.ordinal()].active.increment();
+    }
+
+    /**
+     * Records the end of a search by {@code engineType}.
+     *
+     * @param engineType the engine.
+     * @param nanos      the duration of the search in nanoseconds.
+     * @param nodes      the number of nodes the search visited.
+     */
+    public void searchFinished(EngineType engineType, long nanos, long nodes) {
+        EngineStatistics statistics = engines[engineType.ordinal()];
+        double seconds = nanos / 1e9;
+        int bucket = 0;
+
+        while (bucket < LATENCY_BUCKETS.length
+                && seconds > LATENCY_BUCKETS[bucket]) {
+            bucket++;
+        }
+
+        statistics.latencyBuckets[bucket].increment();
+        statistics.latencySumNanos.add(nanos);
+        statistics.nodes.add(nodes);
+        statistics.searches.increment();
+        statistics.active.decrement();
+        statistics.lastNodesPerSecond =
+                nanos == 0 ? 0.0 : nodes / seconds;
+    }
+
+    /**
+     * Records a search by {@code engineType} that ended before it was done.
+     *
+     * @param engineType the engine.
+     */
+    public void searchCancelled(EngineType engineType) {
+        EngineStatistics statistics = engines[engineType.ordinal()];
+        statistics.cancelled.increment();
+        statistics.active.decrement();
+    }
+
+    /**
+     * Records the use of a transposition table by one search.
+     *
+     * @param probes the number of probes.
+     * @param hits   the number of hits.
+     */
+    public void tableProbed(long probes, long hits) {
+        tableProbes.add(probes);
+        tableHits.add(hits);
+    }
+
+    /**
+     * Records a helper thread of a parallel search that failed. The search
+     * goes on without its help.
+     */
+    public void helperFailed() {
+        helperFailures.increment();
+    }
+
+    /**
+     * Appends all the metrics to {@code out} in the text exposition format of
+     * Prometheus.
+     *
+     * @param out the target of the metrics.
+     */
+    public void writePrometheus(StringBuilder out) {
+        header(out,
+               "crosses_games_started_total",
+               "counter",
+               "The number of games started.");
+        sample(out, "crosses_games_started_total", "", gamesStarted.sum());
+
+        header(out,
+               "crosses_searches_total",
+               "counter",
+               "The number of finished searches.");
+
+        for (EngineType engineType : EngineType.values()) {
+            sample(out,
+                   "crosses_searches_total",
+                   engineLabel(engineType),
+                   statistics(engineType).searches.sum());
+        }
+
+        header(out,
+               "crosses_searches_cancelled_total",
+               "counter",
+               "The number of searches that ended before they were done.");
+
+        for (EngineType engineType : EngineType.values()) {
+            sample(out,
+                   "crosses_searches_cancelled_total",
+                   engineLabel(engineType),
+                   statistics(engineType).cancelled.sum());
+        }
+
+        header(out,
+               "crosses_helper_failures_total",
+               "counter",
+               "The number of helper threads of searches that failed.");
+        sample(out, "crosses_helper_failures_total", "", helperFailures.sum());
+
+        header(out,
+               "crosses_active_searches",
+               "gauge",
+               "The number of searches running.");
+
+        for (EngineType engineType : EngineType.values()) {
+            sample(out,
+                   "crosses_active_searches",
+                   engineLabel(engineType),
+                   statistics(engineType).active.sum());
+        }
+
+        header(out,
+               "crosses_nodes_total",
+               "counter",
+               "The number of nodes visited, or of playouts run by the " +
+               "Monte Carlo engine.");
+
+        for (EngineType engineType : EngineType.values()) {
+            sample(out,
+                   "crosses_nodes_total",
+                   engineLabel(engineType),
+                   statistics(engineType).nodes.sum());
+        }
+
+        header(out,
+               "crosses_nodes_per_second",
+               "gauge",
+               "The speed of the last finished search.");
+
+        for (EngineType engineType : EngineType.values()) {
+            sample(out,
+                   "crosses_nodes_per_second",
+                   engineLabel(engineType),
+                   statistics(engineType).lastNodesPerSecond);
+        }
+
+        header(out,
+               "crosses_move_latency_seconds",
+               "histogram",
+               "The time taken by the searches of the AI moves.");
+
+        for (EngineType engineType : EngineType.values()) {
+            writeLatencyHistogram(out, engineType);
+        }
+
+        header(out,
+               "crosses_table_probes_total",
+               "counter",
+               "The number of probes of the transposition tables.");
+        sample(out, "crosses_table_probes_total", "", tableProbes.sum());
+
+        header(out,
+               "crosses_table_hits_total",
+               "counter",
+               "The number of probes of the transposition tables that " +
+               "found an entry.");
+        sample(out, "crosses_table_hits_total", "", tableHits.sum());
+
+        writePoolGauges(out);
+    }
+
+    private void writeLatencyHistogram(StringBuilder out,
+                                       EngineType engineType) {
+        EngineStatistics statistics = statistics(engineType);
+        String engine = engineLabel(engineType);
+        long count = 0;
+
+        for (int i = 0; i <= LATENCY_BUCKETS.length; ++i) {
+            count += statistics.latencyBuckets[i].sum();
+
+            String bound = i < LATENCY_BUCKETS.length ?
+                           formatValue(LATENCY_BUCKETS[i]) :
+                           "+Inf";
+
+            sample(out,
+                   "crosses_move_latency_seconds_bucket",
+                   engine + ",le=\"" + bound + "\"",
+                   count);
+        }
+
+        sample(out,
+               "crosses_move_latency_seconds_sum",
+               engine,
+               statistics.latencySumNanos.sum() / 1e9);
+        sample(out, "crosses_move_latency_seconds_count", engine, count);
+    }
+
+    /**
+     * Writes the gauges of the search pool, if it is a thread pool.
+     */
+    private static void writePoolGauges(StringBuilder out) {
+        ExecutorService searchPool = EngineExecutors.searchPool();
+
+        if (!(searchPool instanceof ThreadPoolExecutor)) {
+            return;
+        }
+
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) searchPool;
+        int threads = pool.getMaximumPoolSize();
+        int active = pool.getActiveCount();
+
+        header(out,
+               "crosses_search_pool_queue_depth",
+               "gauge",
+               "The number of search tasks waiting for a thread.");
+        sample(out,
+               "crosses_search_pool_queue_depth",
+               "",
+               pool.getQueue().size());
+
+        header(out,
+               "crosses_search_pool_active_threads",
+               "gauge",
+               "The number of search threads running a task.");
+        sample(out, "crosses_search_pool_active_threads", "", active);
+
+        header(out,
+               "crosses_search_pool_utilization",
+               "gauge",
+               "The share of the search threads running a task.");
+        sample(out,
+               "crosses_search_pool_utilization",
+               "",
+               threads == 0 ? 0.0 : (double) active / threads);
+    }
+
+    private EngineStatistics statistics(EngineType engineType) {
+        return engines[engineType.ordinal()];
+    }
+
+    private static String engineLabel(EngineType engineType) {
+        return "engine=\"" + engineType.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+
+    private static void header(StringBuilder out,
+                               String name,
+                               String type,
+                               String help) {
+        out.append("# HELP ").append(name).append(' ').append(help)
+           .append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type)
+           .append('\n');
+    }
+
+    private static void sample(StringBuilder out,
+                               String name,
+                               String labels,
+                               long value) {
+        appendName(out, name, labels).append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out,
+                               String name,
+                               String labels,
+                               double value) {
+        appendName(out, name, labels).append(formatValue(value))
+                                     .append('\n');
+    }
+
+    private static StringBuilder appendName(StringBuilder out,
+                                            String name,
+                                            String labels) {
+        out.append(name);
+
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+
+        return out.append(' ');
+    }
+
+    private static String formatValue(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ?
+               Long.toString((long) value) :
+               Double.toString(value);
+    }
+
+    /**
+     * The statistics of one engine.
+     */
+    private static final class EngineStatistics {
+
+        final LongAdder searches        = new LongAdder();
+        final LongAdder cancelled       = new LongAdder();
+        final LongAdder active          = new LongAdder();
+        final LongAdder nodes           = new LongAdder();
+        final LongAdder latencySumNanos = new LongAdder();
+
+        /**
+         * The counts of the searches per latency bucket, the last one
+         * counting the searches slower than all the bounds.
+         */
+        final LongAdder[] latencyBuckets =
+                new LongAdder[LATENCY_BUCKETS.length + 1];
+
+        volatile double lastNodesPerSecond;
+
+        EngineStatistics() {
+            for (int i = 0; i < latencyBuckets.length; ++i) {
+                latencyBuckets[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package net.coderodde.game.crosses;
+
+/**
+ * This enumeration enumerates the search engines the AI may use for choosing
+ * its moves.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public enum EngineType {
+
+    /**
+     * The depth-limited alpha-beta search of {@link AlphaBetaSearch}. Uses the
+     * AI depth.
+     */
+    ALPHA_BETA("Alpha-beta"),
+
+    /**
+     * The Lazy SMP search of {@link LazySmpSearch}, in which all the search
+     * threads search the whole tree and share a transposition table. Uses the
+     * AI depth.
+     */
+    LAZY_SMP("Lazy SMP"),
+
+    /**
+     * The Monte Carlo tree search of {@link MonteCarloTreeSearch}. Uses the
+     * AI time.
+     */
+    MONTE_CARLO("Monte Carlo");
+
+    private final String displayName;
+
+    private EngineType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,58 @@
+package net.coderodde.game.crosses;
+
+/**
+ * This enumeration enumerates the ways of running the control flow of a game
+ * session, that is, everything the AI does around the actual search.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public enum ExecutionMode {
+
+    /**
+     * Each AI turn is run on the worker threads of
+     * {@link javax.swing.SwingWorker}.
+     */
+    SWING_WORKER,
+
+    /**
+     * Each AI turn is run on its own virtual thread. Requires Java 21 or
+     * later; on older runtimes falls back to platform threads.
+     */
+    VIRTUAL_THREAD;
+
+    /**
+     * The name of the system property selecting the execution mode.
+     */
+    public static final String PROPERTY_NAME = "crosses.executionMode";
+
+    /**
+     * Returns the execution mode requested via the system property
+     * {@value #PROPERTY_NAME}. Accepts {@code swing} and {@code virtual}. If
+     * the property is not set, returns {@link #SWING_WORKER}.
+     *
+     * @return the requested execution mode.
+     */
+    public static ExecutionMode fromSystemProperties() {
+        String value = System.getProperty(PROPERTY_NAME);
+
+        if (value == null) {
+            return SWING_WORKER;
+        }
+
+        switch (value.trim().toLowerCase()) {
+            case "swing":
+            case "swing_worker":
+                return SWING_WORKER;
+
+            case "virtual":
+            case "virtual_thread":
+                return VIRTUAL_THREAD;
+
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown execution mode: " + value + ". Must be " +
+                        "either \"swing\" or \"virtual\".");
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package net.coderodde.game.crosses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class validates the selective search features of
+ * {@link PruningOptions}. It plays random openings from a fixed seed, keeps
+ * the positions in which the full alpha-beta search finds a forced win for the
+ * player to move, and searches each of them again with the selective features
+ * on. A position in which the selective search misses the win is printed and
+ * fails the suite. The nodes and the time of both searches are summed up, so
+ * that the suite doubles as a measure of the savings.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class ForcedWinSuite {
+
+    private static final String USAGE =
+            "Usage: ForcedWinSuite [-s SIZE] [-k WINNING_LENGTH] [-d DEPTH] " +
+            "[-n POSITIONS] [-r SEED]";
+
+    private static final int DEFAULT_SIZE = 9;
+    private static final int DEFAULT_WINNING_LENGTH = 4;
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int DEFAULT_POSITIONS = 100;
+    private static final long DEFAULT_SEED = 2026L;
+
+    /**
+     * The number of random openings tried per position wanted before giving
+     * up.
+     */
+    private static final int ATTEMPTS_PER_POSITION = 50;
+
+    public static void main(String[] args) {
+        int size = DEFAULT_SIZE;
+        int winningLength = DEFAULT_WINNING_LENGTH;
+        int depth = DEFAULT_DEPTH;
+        int positions = DEFAULT_POSITIONS;
+        long seed = DEFAULT_SEED;
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "-s":
+                        size = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-k":
+                        winningLength = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-d":
+                        depth = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-n":
+                        positions = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-r":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        List<TicTacToeGrid> suite = new ArrayList<>(positions);
+        Random random = new Random(seed);
+        long fullNodes = 0;
+        long fullTime = 0;
+
+        for (int attempt = 0;
+                attempt < ATTEMPTS_PER_POSITION * positions
+                && suite.size() < positions;
+                ++attempt) {
+            TicTacToeGrid grid = randomOpening(size, winningLength, random);
+
+            if (grid == null) {
+                continue;
+            }
+
+            long startTime = System.nanoTime();
+            SearchResult result =
+                    newSearch(PruningOptions.NONE)
+                            .search(grid, grid.getPlayerToMove(), depth);
+            long time = System.nanoTime() - startTime;
+
+            if (result != null && isWinFor(result.getScore(),
+                                           grid.getPlayerToMove())) {
+                suite.add(grid);
+                fullNodes += result.getNodes();
+                fullTime += time;
+            }
+        }
+
+        System.out.println("Found " + suite.size() + " forced wins at depth " +
+                           depth + ".");
+
+        long selectiveNodes = 0;
+        long selectiveTime = 0;
+        int missed = 0;
+
+        for (TicTacToeGrid grid : suite) {
+            Mark player = grid.getPlayerToMove();
+            long startTime = System.nanoTime();
+            SearchResult result = newSearch(PruningOptions.ALL)
+                                          .search(grid, player, depth);
+            selectiveTime += System.nanoTime() - startTime;
+            selectiveNodes += result.getNodes();
+
+            if (!isWinFor(result.getScore(), player)) {
+                missed++;
+                System.out.println("Missed the win of " + player + " in:");
+                System.out.println(grid);
+            }
+        }
+
+        System.out.println("Full search:      " + fullNodes + " nodes, " +
+                           fullTime / 1000000 + " ms.");
+        System.out.println("Selective search: " + selectiveNodes + " nodes, " +
+                           selectiveTime / 1000000 + " ms.");
+
+        if (missed > 0) {
+            System.out.println("FAILED: " + missed + " wins missed.");
+            System.exit(1);
+        }
+
+        System.out.println("OK");
+    }
+
+    private static AlphaBetaSearch newSearch(PruningOptions pruningOptions) {
+        return new AlphaBetaSearch(new NeighborhoodMoveGenerator(),
+                                   new HeuristicFunction(),
+                                   null,
+                                   pruningOptions);
+    }
+
+    private static boolean isWinFor(int score, Mark player) {
+        return Score.isWin(score) && (score > 0) == player.equals(Mark.X);
+    }
+
+    /**
+     * Plays a random number of random moves near the center of an empty
+     * board.
+     *
+     * @return the resulting position, or {@code null} if the game is over.
+     */
+    private static TicTacToeGrid randomOpening(int size,
+                                               int winningLength,
+                                               Random random) {
+        TicTacToeGrid grid = new TicTacToeGrid(size, size, winningLength);
+        int moves = 4 + random.nextInt(2 * winningLength);
+        int margin = size / 4;
+        Mark player = Mark.X;
+
+        for (int i = 0; i < moves; ++i) {
+            int x = margin + random.nextInt(size - 2 * margin);
+            int y = margin + random.nextInt(size - 2 * margin);
+
+            if (grid.read(x, y) == null) {
+                grid.mark(x, y, player);
+                player = player.opponent();
+            }
+        }
+
+        if (grid.getWinner() != null || grid.isFull()) {
+            return null;
+        }
+
+        return grid;
+    }
+}
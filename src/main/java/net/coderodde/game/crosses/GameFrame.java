@@ -3,9 +3,17 @@ package net.coderodde.game.crosses;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.EnumMap;
+import java.util.Map;
 import javax.swing.JFrame;
 import static javax.swing.JFrame.EXIT_ON_CLOSE;
+import javax.swing.BoundedRangeModel;
 import javax.swing.JProgressBar;
+import javax.swing.JScrollBar;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import static net.coderodde.game.crosses.Application.centerFrame;
 
 /**
@@ -17,15 +25,57 @@ import static net.coderodde.game.crosses.Application.centerFrame;
 public class GameFrame extends JFrame implements AIProgressListener {
 
     private final JProgressBar progressBar;
+    private final CoalescingProgressListener progressListener;
     private final ConfigurationFrame configurationFrame;
     private TicTacToePanel gamePanel;
+
+    /**
+     * The depth controllers of the engines. Kept for the whole session so
+     * that they learn across the games.
+     */
+    private final Map<EngineType, DepthController> depthControllers =
+            new EnumMap<>(EngineType.class);
     
     public GameFrame(ConfigurationFrame configurationFrame) {
         this.progressBar = new JProgressBar();
+        this.progressListener = new CoalescingProgressListener(this);
         this.configurationFrame = configurationFrame;
+
+        addWindowListener(new WindowAdapter() {
+
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Keep the moves of the unfinished game.
+                if (gamePanel != null) {
+                    gamePanel.getGameRecorder().finish();
+                }
+            }
+        });
     }
 
-    public void startGame(TicTacToeGrid grid, int depth) {
+    /**
+     * Returns the depth controller of {@code engineType}, shared by all the
+     * games of the session.
+     *
+     * @param engineType the engine.
+     * @return the controller.
+     */
+    public synchronized DepthController getDepthController(
+            EngineType engineType) {
+        DepthController depthController = depthControllers.get(engineType);
+
+        if (depthController == null) {
+            depthController = new DepthController();
+            depthControllers.put(engineType, depthController);
+        }
+
+        return depthController;
+    }
+
+    public void startGame(TicTacToeGrid grid, 
+                          int depth, 
+                          EngineType engineType, 
+                          int time) {
         getContentPane().removeAll();
         progressBar.setVisible(false);
         centerFrame(this);
@@ -33,17 +83,22 @@ public class GameFrame extends JFrame implements AIProgressListener {
         getContentPane().setLayout(new GridBagLayout());
         setDefaultCloseOperation(EXIT_ON_CLOSE);
 
-        MoveGenerator moveGenerator = new MoveGenerator();
+        MoveGenerator moveGenerator = new NeighborhoodMoveGenerator();
         HeuristicFunction heuristicFunction = new HeuristicFunction();
+        ExecutionMode executionMode = ExecutionMode.fromSystemProperties();
 
         gamePanel = new TicTacToePanel(progressBar,
                                                   moveGenerator,
                                                   heuristicFunction,
                                                   depth,
+                                                  engineType,
+                                                  time,
                                                   configurationFrame,
-                                                  this);
+                                                  this,
+                                                  executionMode);
         gamePanel.setCurrentGrid(grid);
         gamePanel.unlock();
+        EngineMetrics.get().gameStarted();
         gamePanel.repaint();
 
         GridBagConstraints c = new GridBagConstraints();
@@ -56,6 +111,25 @@ public class GameFrame extends JFrame implements AIProgressListener {
 
         getContentPane().add(gamePanel, c);
 
+        JScrollBar verticalScrollBar = new JScrollBar(JScrollBar.VERTICAL);
+        verticalScrollBar.setModel(gamePanel.getVerticalModel());
+        showScrollBarWhenNeeded(verticalScrollBar);
+
+        c = new GridBagConstraints();
+
+        c.gridx = 1;
+        c.gridy = 0;
+        c.weightx = 0.0;
+        c.weighty = 1.0;
+        c.fill = GridBagConstraints.VERTICAL;
+
+        getContentPane().add(verticalScrollBar, c);
+
+        JScrollBar horizontalScrollBar = 
+                new JScrollBar(JScrollBar.HORIZONTAL);
+        horizontalScrollBar.setModel(gamePanel.getHorizontalModel());
+        showScrollBarWhenNeeded(horizontalScrollBar);
+
         c = new GridBagConstraints();
 
         c.gridx = 0;
@@ -64,6 +138,17 @@ public class GameFrame extends JFrame implements AIProgressListener {
         c.weighty = 0.0;
         c.fill = GridBagConstraints.HORIZONTAL;
 
+        getContentPane().add(horizontalScrollBar, c);
+
+        c = new GridBagConstraints();
+
+        c.gridx = 0;
+        c.gridy = 2;
+        c.gridwidth = 2;
+        c.weightx = 1.0;
+        c.weighty = 0.0;
+        c.fill = GridBagConstraints.HORIZONTAL;
+
         getContentPane().add(progressBar, c);
 
         setMinimumSize(gamePanel.getMinimumSize());
@@ -72,6 +157,38 @@ public class GameFrame extends JFrame implements AIProgressListener {
         pack();
     }
 
+    /**
+     * Makes {@code scrollBar} visible only while the board does not fit into
+     * the viewport along its axis.
+     */
+    private void showScrollBarWhenNeeded(final JScrollBar scrollBar) {
+        scrollBar.setVisible(false);
+        scrollBar.getModel().addChangeListener(new ChangeListener() {
+
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                BoundedRangeModel model = scrollBar.getModel();
+                boolean needed = model.getExtent() < model.getMaximum() - 
+                                                     model.getMinimum();
+
+                if (scrollBar.isVisible() != needed) {
+                    scrollBar.setVisible(needed);
+                    getContentPane().revalidate();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the progress listener that may be called from the AI threads.
+     * It forwards the progress to this frame on the Event Dispatch Thread.
+     * 
+     * @return the thread-safe progress listener.
+     */
+    public AIProgressListener getProgressListener() {
+        return progressListener;
+    }
+
     @Override
     public void start(int totalProgressTokens) {
         progressBar.setMaximum(totalProgressTokens);
@@ -85,8 +202,8 @@ public class GameFrame extends JFrame implements AIProgressListener {
     }
 
     @Override
-    public void increment() {
-        progressBar.setValue(progressBar.getValue() + 1);
+    public void increment(int progressTokens) {
+        progressBar.setValue(progressBar.getValue() + progressTokens);
     }
 
     @Override
@@ -0,0 +1,142 @@
+package net.coderodde.game.crosses;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * This class holds a single recorded game: the configuration of its grid and
+ * its moves in the order they were made. Each move is stored as the packed
+ * cell index {@code y * width + x}. The players alternate, starting with
+ * {@code firstPlayer}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class GameRecord {
+
+    private final int   width;
+    private final int   height;
+    private final int   winningLength;
+    private final Mark  firstPlayer;
+    private final int[] moves;
+
+    public GameRecord(int width,
+                      int height,
+                      int winningLength,
+                      Mark firstPlayer,
+                      int[] moves) {
+        this.width = width;
+        this.height = height;
+        this.winningLength = winningLength;
+        this.firstPlayer = Objects.requireNonNull(firstPlayer,
+                                                  "The first player is null.");
+        this.moves = moves;
+
+        BitSet occupied = new BitSet(width * height);
+
+        for (int move : moves) {
+            if (move < 0 || move >= width * height) {
+                throw new IllegalArgumentException(
+                        "Cell index " + move + " is outside of a " + width +
+                        "x" + height + " grid.");
+            }
+
+            if (occupied.get(move)) {
+                throw new IllegalArgumentException(
+                        "Cell index " + move + " is played twice.");
+            }
+
+            occupied.set(move);
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWinningLength() {
+        return winningLength;
+    }
+
+    public Mark getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public int getNumberOfMoves() {
+        return moves.length;
+    }
+
+    public int getMoveX(int index) {
+        return moves[index] % width;
+    }
+
+    public int getMoveY(int index) {
+        return moves[index] / width;
+    }
+
+    /**
+     * Returns the player making the move with the given index.
+     *
+     * @param index the index of the move.
+     * @return the player to move.
+     */
+    public Mark getPlayer(int index) {
+        return (index & 1) == 0 ? firstPlayer : firstPlayer.opponent();
+    }
+
+    int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Replays all the moves of this game on a new grid.
+     *
+     * @return the final position.
+     */
+    public TicTacToeGrid replay() {
+        return replay(moves.length);
+    }
+
+    /**
+     * Replays the first {@code numberOfMoves} moves of this game on a new
+     * grid.
+     *
+     * @param numberOfMoves the number of moves to replay.
+     * @return the position after the requested moves.
+     */
+    public TicTacToeGrid replay(int numberOfMoves) {
+        TicTacToeGrid grid = new TicTacToeGrid(height, width, winningLength);
+
+        for (int i = 0; i < numberOfMoves; ++i) {
+            grid.mark(getMoveX(i), getMoveY(i), getPlayer(i));
+        }
+
+        return grid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GameRecord)) {
+            return false;
+        }
+
+        GameRecord other = (GameRecord) o;
+
+        return width == other.width
+                && height == other.height
+                && winningLength == other.winningLength
+                && firstPlayer == other.firstPlayer
+                && Arrays.equals(moves, other.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(width, height, winningLength, firstPlayer,
+                            Arrays.hashCode(moves));
+    }
+}
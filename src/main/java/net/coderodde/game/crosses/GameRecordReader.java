@@ -0,0 +1,190 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class reads the game records written by {@link GameRecordWriter} one
+ * at a time, so that files of any size can be replayed in constant memory.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class GameRecordReader implements Closeable {
+
+    /**
+     * The largest number of cells of the grid of a record. Larger grids are
+     * taken for corruption rather than replayed, as their grids could not be
+     * allocated.
+     */
+    static final int MAXIMUM_CELLS = 1 << 24;
+
+    private final InputStream in;
+
+    /**
+     * Reads and validates the file header.
+     *
+     * @param in the stream to read.
+     * @throws IOException if the stream does not start with a valid header.
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in, 1 << 16);
+
+        for (byte magicByte : GameRecordWriter.MAGIC) {
+            if (this.in.read() != magicByte) {
+                throw new IOException("Not a game record file.");
+            }
+        }
+
+        int version = this.in.read();
+
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException(
+                    "Unsupported game record version: " + version + ".");
+        }
+    }
+
+    /**
+     * Reads the next game record.
+     *
+     * @return the next record, or {@code null} if the end of the stream has
+     *         been reached.
+     * @throws IOException if the stream ends within a record or is corrupt.
+     */
+    public GameRecord read() throws IOException {
+        int flags = in.read();
+
+        if (flags < 0) {
+            return null;
+        }
+
+        int width         = readVarInt();
+        int height        = readVarInt();
+        int winningLength = readVarInt();
+        int moveCount     = readVarInt();
+
+        // The variable-length integers may decode to negative values, and
+        // the product of two positive ones may overflow.
+        if (width < TicTacToeGrid.MINIMUM_COLUMNS
+                || height < TicTacToeGrid.MINIMUM_ROWS
+                || (long) width * height > MAXIMUM_CELLS) {
+            throw new IOException(
+                    "Corrupt record: a " + width + "x" + height + " grid.");
+        }
+
+        if (winningLength <= 0 
+                || winningLength > Math.min(width, height)) {
+            throw new IOException(
+                    "Corrupt record: winning length " + winningLength +
+                    " on a " + width + "x" + height + " grid.");
+        }
+
+        if (moveCount < 0 || moveCount > width * height) {
+            throw new IOException(
+                    "Corrupt record: " + moveCount + " moves on a " + width +
+                    "x" + height + " grid.");
+        }
+
+        int[] moves = new int[moveCount];
+
+        for (int i = 0; i < moveCount; ++i) {
+            moves[i] = readVarInt();
+        }
+
+        Mark firstPlayer = (flags & GameRecordWriter.FLAG_O_FIRST) != 0 ?
+                           Mark.O :
+                           Mark.X;
+
+        try {
+            return new GameRecord(width,
+                                  height,
+                                  winningLength,
+                                  firstPlayer,
+                                  moves);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Corrupt record: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+
+            if (b < 0) {
+                throw new EOFException("Truncated game record.");
+            }
+
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+    /**
+     * Replays every game in the given files and prints a summary of the
+     * outcomes.
+     *
+     * @param args the game record files.
+     * @throws IOException if reading fails.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: GameRecordReader FILE...");
+            return;
+        }
+
+        long games = 0;
+        long moves = 0;
+        long xWins = 0;
+        long oWins = 0;
+        long ties  = 0;
+        long startTime = System.currentTimeMillis();
+
+        for (String fileName : args) {
+            try (GameRecordReader reader =
+                    new GameRecordReader(new FileInputStream(fileName))) {
+                GameRecord record;
+
+                while ((record = reader.read()) != null) {
+                    TicTacToeGrid grid = record.replay();
+                    Mark winner = grid.getWinner();
+
+                    games++;
+                    moves += record.getNumberOfMoves();
+
+                    if (Mark.X.equals(winner)) {
+                        xWins++;
+                    } else if (Mark.O.equals(winner)) {
+                        oWins++;
+                    } else if (grid.isFull()) {
+                        ties++;
+                    }
+                }
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        System.out.println("Games: " + games + ", moves: " + moves +
+                           ", X won: " + xWins + ", O won: " + oWins +
+                           ", ties: " + ties + ", unfinished: " +
+                           (games - xWins - oWins - ties) + ".");
+        System.out.println("Replay took " + (endTime - startTime) +
+                           " milliseconds.");
+    }
+}
@@ -0,0 +1,103 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This class writes game records in a compact binary format. A game record
+ * file starts with the four magic bytes {@code NACR} followed by a version
+ * byte, and is followed by any number of records. Each record consists of
+ * <ol>
+ *   <li>a flags byte; bit 0 is set if <tt>O</tt> made the first move,</li>
+ *   <li>the width, the height and the winning length of the grid,</li>
+ *   <li>the number of moves,</li>
+ *   <li>the packed cell index {@code y * width + x} of each move,</li>
+ * </ol>
+ * where all the numbers are unsigned LEB128 variable-length integers, so a
+ * move on a board of at most 128 cells takes a single byte.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class GameRecordWriter implements Closeable {
+
+    static final byte[] MAGIC = { 'N', 'A', 'C', 'R' };
+    static final int VERSION = 1;
+    static final int FLAG_O_FIRST = 1;
+
+    private final OutputStream out;
+
+    /**
+     * Opens the file for appending. Writes the file header if the file is
+     * empty.
+     *
+     * @param file the game record file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public GameRecordWriter(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent + ".");
+        }
+
+        boolean empty = file.length() == 0L;
+        this.out = new BufferedOutputStream(new FileOutputStream(file, true));
+
+        if (empty) {
+            writeHeader();
+        }
+    }
+
+    /**
+     * Writes the records to {@code out} after a file header.
+     *
+     * @param out the target stream.
+     * @throws IOException if writing the header fails.
+     */
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out);
+        writeHeader();
+    }
+
+    public void write(GameRecord record) throws IOException {
+        out.write(record.getFirstPlayer().equals(Mark.O) ? FLAG_O_FIRST : 0);
+        writeVarInt(record.getWidth());
+        writeVarInt(record.getHeight());
+        writeVarInt(record.getWinningLength());
+
+        int[] moves = record.getMoves();
+        writeVarInt(moves.length);
+
+        for (int move : moves) {
+            writeVarInt(move);
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeHeader() throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+
+        out.write(value);
+    }
+}
@@ -0,0 +1,120 @@
+package net.coderodde.game.crosses;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class collects the moves of the game being played and appends the game
+ * to the game log once it is over.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class GameRecorder {
+
+    /**
+     * The name of the system property specifying the game log file. An empty
+     * value disables the logging. Defaults to
+     * <tt>~/.noughts-and-crosses/games.nacr</tt>.
+     */
+    public static final String LOG_PROPERTY_NAME = "crosses.gameLog";
+
+    /**
+     * Serializes the appends of all recorders to the log.
+     */
+    private static final Object LOG_LOCK = new Object();
+
+    private final int  width;
+    private final int  height;
+    private final int  winningLength;
+    private final File logFile;
+
+    private Mark    firstPlayer;
+    private int[]   moves = new int[16];
+    private int     size;
+    private boolean finished;
+
+    /**
+     * Creates a recorder for a game on a grid configured as {@code grid}.
+     *
+     * @param grid    the grid of the game.
+     * @param logFile the log file, or {@code null} for not logging.
+     */
+    public GameRecorder(TicTacToeGrid grid, File logFile) {
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.winningLength = grid.getWinningLength();
+        this.logFile = logFile;
+    }
+
+    /**
+     * Returns the log file specified by the system property
+     * {@value #LOG_PROPERTY_NAME}, or {@code null} if logging is disabled.
+     *
+     * @return the game log file or {@code null}.
+     */
+    public static File getDefaultLogFile() {
+        String path = System.getProperty(LOG_PROPERTY_NAME);
+
+        if (path == null) {
+            return new File(new File(System.getProperty("user.home"),
+                                     ".noughts-and-crosses"),
+                            "games.nacr");
+        }
+
+        return path.trim().isEmpty() ? null : new File(path.trim());
+    }
+
+    public synchronized void recordMove(int x, int y, Mark player) {
+        if (size == 0) {
+            firstPlayer = player;
+        }
+
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * size);
+        }
+
+        moves[size++] = y * width + x;
+    }
+
+    /**
+     * Returns the game recorded so far.
+     *
+     * @return the game record.
+     */
+    public synchronized GameRecord toRecord() {
+        return new GameRecord(width,
+                              height,
+                              winningLength,
+                              firstPlayer == null ? Mark.X : firstPlayer,
+                              Arrays.copyOf(moves, size));
+    }
+
+    /**
+     * Appends the game to the log. Subsequent calls do nothing, so it is safe
+     * to call this both when the game ends and when its window is closed.
+     */
+    public void finish() {
+        GameRecord record;
+
+        synchronized (this) {
+            if (finished || size == 0 || logFile == null) {
+                finished = true;
+                return;
+            }
+
+            finished = true;
+            record = toRecord();
+        }
+
+        synchronized (LOG_LOCK) {
+            try (GameRecordWriter writer = new GameRecordWriter(logFile)) {
+                writer.write(record);
+            } catch (IOException ex) {
+                System.err.println("Could not log the game to " + logFile +
+                                   ": " + ex.getMessage());
+            }
+        }
+    }
+}
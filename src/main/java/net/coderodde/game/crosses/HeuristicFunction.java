@@ -18,33 +18,118 @@ public class HeuristicFunction {
      * @return a heuristic estimate.
      */
     public double estimate(TicTacToeGrid grid) {
-        double sum = checkDiagonalLR(grid);
+        int value = evaluate(grid);
 
-        if (Double.isInfinite(sum) && sum > 0.0) {
+        if (value == Score.WIN) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        if (value == -Score.WIN) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        return Score.clampEvaluation(value);
+    }
+
+    /**
+     * Returns the integer heuristic estimate for {@code grid}. If the
+     * <tt>X</tt> player wins, returns {@link Score#WIN}. If the <tt>O</tt>
+     * player wins, returns {@code -Score.WIN}. Otherwise, returns a value 
+     * whose absolute value is at most {@link Score#MAX_EVALUATION}.
+     * 
+     * @param grid the state to estimate.
+     * @return an integer heuristic estimate.
+     */
+    public int evaluate(TicTacToeGrid grid) {
+        int sum = checkDiagonalLR(grid);
+
+        if (isTerminal(sum)) {
             return sum;
         }
 
-        double sum2 = checkDiagonalRL(grid);
+        int sum2 = checkDiagonalRL(grid);
 
-        if (Double.isInfinite(sum2) && sum2 > 0.0) {
+        if (isTerminal(sum2)) {
             return sum2;
         }
 
-        double sum3 = checkVertical(grid);
+        int sum3 = checkVertical(grid);
 
-        if (Double.isInfinite(sum3) && sum3 > 0.0) {
+        if (isTerminal(sum3)) {
             return sum3;
         }
 
-        return sum + sum2 + sum3 + checkHorizontal(grid);
+        int sum4 = checkHorizontal(grid);
+
+        if (isTerminal(sum4)) {
+            return sum4;
+        }
+
+        return Score.clampEvaluation((long) sum + sum2 + sum3 + sum4);
+    }
+
+    /**
+     * Returns the integer heuristic estimate for a sparse {@code grid}. It
+     * scores the runs just like {@link #evaluate(TicTacToeGrid)}, so the two
+     * agree on any position not touching the edges of the dense grid. Only
+     * the occupied cells and the lines starting at them are visited.
+     * 
+     * @param grid the state to estimate.
+     * @return an integer heuristic estimate.
+     */
+    public int evaluate(SparseTicTacToeGrid grid) {
+        Mark winner = grid.getWinner();
+
+        if (winner != null) {
+            return winner.equals(Mark.X) ? Score.WIN : -Score.WIN;
+        }
+
+        PackedCellMap cells = grid.getCells();
+        int winLen = grid.getWinningLength();
+        long value = 0;
+
+        for (int slot = 0; slot < cells.capacity(); ++slot) {
+            if (!cells.isUsed(slot)) {
+                continue;
+            }
+
+            long key = cells.keyAt(slot);
+            int x = PackedCellMap.unpackX(key);
+            int y = PackedCellMap.unpackY(key);
+            Mark mark = cells.markAt(slot);
+
+            for (int[] direction : SparseTicTacToeGrid.DIRECTIONS) {
+                int scanned = 1;
+
+                while (scanned < winLen 
+                        && mark.equals(cells.get(x + scanned * direction[0],
+                                                 y + scanned * direction[1]))) {
+                    scanned++;
+                }
+
+                if (scanned > 1) {
+                    if (mark.equals(Mark.X)) {
+                        value += scanned * scanned;
+                    } else {
+                        value -= scanned * scanned;
+                    }
+                }
+            }
+        }
+
+        return Score.clampEvaluation(value);
+    }
+
+    private static boolean isTerminal(int value) {
+        return value == Score.WIN || value == -Score.WIN;
     }
 
-    private double checkDiagonalLR(TicTacToeGrid grid) {
+    private int checkDiagonalLR(TicTacToeGrid grid) {
         int width = grid.getWidth();
         int height = grid.getHeight();
         int winLen = grid.getWinningLength();
 
-        double value = 0.0;
+        long value = 0;
 
         for (int y = 0; y < height - 1; ++y) {
             for (int x = 0; x < width - 1; ++x) {
@@ -67,28 +152,26 @@ public class HeuristicFunction {
                 }
 
                 if (scanned == winLen) {
-                    return mark.equals(Mark.X) ? 
-                            Double.POSITIVE_INFINITY : 
-                            Double.NEGATIVE_INFINITY;
+                    return mark.equals(Mark.X) ? Score.WIN : -Score.WIN;
                 } else if (scanned > 1) {
                     if (mark.equals(Mark.X)) {
                         value += scanned * scanned;
                     } else {
-                        value += scanned * scanned;
+                        value -= scanned * scanned;
                     }
                 }
             }
         }
 
-        return value;
+        return Score.clampEvaluation(value);
     }
 
-    private double checkDiagonalRL(TicTacToeGrid grid) {
+    private int checkDiagonalRL(TicTacToeGrid grid) {
         int width = grid.getWidth();
         int height = grid.getHeight();
         int winLen = grid.getWinningLength();
 
-        double value = 0.0;
+        long value = 0;
 
         for (int y = 0; y < height - 1; ++y) {
             for (int x = 1; x < width; ++x) {
@@ -111,9 +194,7 @@ public class HeuristicFunction {
                 }
 
                 if (scanned == winLen) {
-                    return mark.equals(Mark.X) ? 
-                            Double.POSITIVE_INFINITY : 
-                            Double.NEGATIVE_INFINITY;
+                    return mark.equals(Mark.X) ? Score.WIN : -Score.WIN;
                 } else if (scanned > 1) {
                     if (mark.equals(Mark.X)) {
                         value += scanned * scanned;
@@ -124,15 +205,15 @@ public class HeuristicFunction {
             }
         }
 
-        return value;
+        return Score.clampEvaluation(value);
     }
 
-    private double checkVertical(TicTacToeGrid grid) {
+    private int checkVertical(TicTacToeGrid grid) {
         int width = grid.getWidth();
         int height = grid.getHeight();
         int winLen = grid.getWinningLength();
 
-        double value = 0.0;
+        long value = 0;
 
         for (int y = 0; y < height - 1; ++y) {
             for (int x = 0; x < width; ++x) {
@@ -153,9 +234,7 @@ public class HeuristicFunction {
                 }
 
                 if (scanned == winLen) {
-                    return mark.equals(Mark.X) ? 
-                            Double.POSITIVE_INFINITY :
-                            Double.NEGATIVE_INFINITY;
+                    return mark.equals(Mark.X) ? Score.WIN : -Score.WIN;
                 } else if (scanned > 1) {
                     if (mark.equals(Mark.X)) {
                         value += scanned * scanned;
@@ -166,15 +245,15 @@ public class HeuristicFunction {
             }
         }
 
-        return value;
+        return Score.clampEvaluation(value);
     }
 
-    private double checkHorizontal(TicTacToeGrid grid) {
+    private int checkHorizontal(TicTacToeGrid grid) {
         int width = grid.getWidth();
         int height = grid.getHeight();
         int winLen = grid.getWinningLength();
 
-        double value = 0.0;
+        long value = 0;
 
         for (int y = 0; y < height; ++y) {
             for (int x = 0; x < width - 1; ++x) {
@@ -195,9 +274,7 @@ public class HeuristicFunction {
                 }
 
                 if (scanned == winLen) {
-                    return mark.equals(Mark.X) ? 
-                            Double.POSITIVE_INFINITY :
-                            Double.NEGATIVE_INFINITY;
+                    return mark.equals(Mark.X) ? Score.WIN : -Score.WIN;
                 } else if (scanned > 1) {
                     if (mark.equals(Mark.X)) {
                         value += scanned * scanned;
@@ -208,6 +285,6 @@ public class HeuristicFunction {
             }
         }
 
-        return value;
+        return Score.clampEvaluation(value);
     }
 }
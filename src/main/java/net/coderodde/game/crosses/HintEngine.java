@@ -0,0 +1,271 @@
+package net.coderodde.game.crosses;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+
+/**
+ * This class analyzes the positions of the human player in the background to
+ * show hints. Each candidate move is searched with the full window by
+ * iterative deepening, one move at a time, and the scores found so far are
+ * published after each move, so that the hints refine while the user looks
+ * at them.
+ * <p>
+ * The analyses are cached per position by its Zobrist key. Coming back to a
+ * position, for example by switching the hints off and on, continues its
+ * analysis from the deepest completed iteration, and a position analyzed to
+ * the end is never searched again. Only one position is analyzed at a time,
+ * on the background executor of {@link EngineExecutors}.
+ * <p>
+ * The methods of this class must be called on the Event Dispatch Thread,
+ * which is also where the listener is notified.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+final class HintEngine {
+
+    /**
+     * The deepest iteration of an analysis.
+     */
+    static final int MAXIMUM_DEPTH = 6;
+
+    /**
+     * The number of positions whose analyses are cached.
+     */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * The number of slots of the transposition table of the analyses.
+     */
+    private static final int TABLE_CAPACITY = 1 << 18;
+
+    private final MoveGenerator     moveGenerator;
+    private final HeuristicFunction heuristicFunction;
+    private final Runnable          listener;
+
+    /**
+     * The table of the analyses, kept apart from the one of the AI so that
+     * the hints do not evict its entries.
+     */
+    private final TranspositionTable transpositionTable =
+            new TranspositionTable(TABLE_CAPACITY);
+
+    private final Map<Long, Hints> cache =
+            new LinkedHashMap<Long, Hints>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Hints> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Set while a notification of the listener is pending.
+     */
+    private final AtomicBoolean notificationPending = new AtomicBoolean();
+
+    private Analysis analysis;
+
+    /**
+     * Constructs a hint engine.
+     *
+     * @param moveGenerator     the generator of the candidate moves.
+     * @param heuristicFunction the evaluation of the positions.
+     * @param listener          notified on the Event Dispatch Thread whenever
+     *                          the hints change.
+     */
+    HintEngine(MoveGenerator moveGenerator,
+               HeuristicFunction heuristicFunction,
+               Runnable listener) {
+        this.moveGenerator = moveGenerator;
+        this.heuristicFunction = heuristicFunction;
+        this.listener = listener;
+    }
+
+    /**
+     * Makes {@code grid} with {@code player} to move the position being
+     * analyzed, stopping the analysis of any other position. Does nothing if
+     * the position is already being analyzed or its analysis is done.
+     *
+     * @param grid   the position.
+     * @param player the player to move.
+     */
+    void analyze(TicTacToeGrid grid, Mark player) {
+        long key = TranspositionTable.key(grid, player);
+
+        if (analysis != null && analysis.key == key) {
+            return;
+        }
+
+        stop();
+
+        Hints hints = cache.get(key);
+
+        if (hints == null) {
+            hints = new Hints(grid.getWidth() * grid.getHeight());
+            cache.put(key, hints);
+        }
+
+        if (hints.complete) {
+            return;
+        }
+
+        analysis = new Analysis(key, new TicTacToeGrid(grid), player, hints);
+        EngineExecutors.backgroundExecutor().execute(analysis);
+    }
+
+    /**
+     * Stops the running analysis, keeping what it has found.
+     */
+    void stop() {
+        if (analysis != null) {
+            analysis.search.abort();
+            analysis = null;
+        }
+    }
+
+    /**
+     * Returns the hints of {@code grid} with {@code player} to move.
+     *
+     * @param grid   the position.
+     * @param player the player to move.
+     * @return the hints, or {@code null} if the position was never analyzed.
+     */
+    Hints getHints(TicTacToeGrid grid, Mark player) {
+        return cache.get(TranspositionTable.key(grid, player));
+    }
+
+    private void notifyListener() {
+        if (notificationPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(new Runnable() {
+
+                @Override
+                public void run() {
+                    notificationPending.set(false);
+                    listener.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * The hints of one position. The scores are replaced as a whole by each
+     * update, so a reader always sees a consistent snapshot.
+     */
+    static final class Hints {
+
+        /**
+         * The score of a cell that is not a candidate or not searched yet.
+         */
+        static final int UNKNOWN = Integer.MIN_VALUE;
+
+        private volatile int[] scores;
+
+        /**
+         * The deepest completed iteration, or {@code -1} if there is none.
+         */
+        private volatile int depth = -1;
+
+        private volatile boolean complete;
+
+        Hints(int cells) {
+            int[] unknown = new int[cells];
+            Arrays.fill(unknown, UNKNOWN);
+            this.scores = unknown;
+        }
+
+        /**
+         * Returns the scores of the cells, indexed by {@code y * width + x}.
+         * Positive scores favor <tt>X</tt>. The returned array must not be
+         * modified.
+         *
+         * @return the scores.
+         */
+        int[] getScores() {
+            return scores;
+        }
+
+        int getDepth() {
+            return depth;
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+    }
+
+    /**
+     * The analysis of one position.
+     */
+    private final class Analysis implements Runnable {
+
+        final long key;
+        final TicTacToeGrid grid;
+        final Mark player;
+        final Hints hints;
+        final AlphaBetaSearch search;
+
+        Analysis(long key, TicTacToeGrid grid, Mark player, Hints hints) {
+            this.key = key;
+            this.grid = grid;
+            this.player = player;
+            this.hints = hints;
+            this.search = new AlphaBetaSearch(
+                    moveGenerator,
+                    heuristicFunction,
+                    transpositionTable,
+                    PruningOptions.fromSystemProperties());
+        }
+
+        @Override
+        public void run() {
+            if (search.isAborted()) {
+                return;
+            }
+
+            List<TicTacToeGrid> children =
+                    moveGenerator.generateMoves(grid, player);
+            int[] scores = hints.scores.clone();
+
+            transpositionTable.newSearch();
+
+            for (int depth = hints.depth + 1;
+                    depth <= MAXIMUM_DEPTH;
+                    ++depth) {
+                boolean decided = true;
+
+                for (TicTacToeGrid child : children) {
+                    int value = search.alphabeta(child,
+                                                 depth,
+                                                 1,
+                                                 -Score.INFINITY,
+                                                 Score.INFINITY,
+                                                 player.opponent());
+
+                    if (search.isAborted()) {
+                        return;
+                    }
+
+                    scores[child.getAddedCell(grid)] = value;
+                    decided &= Score.isWin(value);
+                    hints.scores = scores.clone();
+                    notifyListener();
+                }
+
+                hints.depth = depth;
+
+                if (decided || depth >= grid.getEmptyCount() - 1) {
+                    // Deeper searches cannot change the scores.
+                    break;
+                }
+            }
+
+            hints.complete = true;
+            notifyListener();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class plays k-in-a-row on an unbounded field in the console. The
+ * field is a {@link SparseTicTacToeGrid} and the AI searches it with a
+ * {@link SparseAlphaBetaSearch}, so the game may spread in any direction
+ * without a board to outgrow. The human plays <tt>X</tt> and types the moves
+ * as <tt>x,y</tt>; the coordinates may be negative.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class InfiniteBoardGame {
+
+    private static final String USAGE =
+            "Usage: InfiniteBoardGame [-k WINNING_LENGTH] [-d DEPTH] " +
+            "[-r RADIUS]";
+
+    private static final int DEFAULT_WINNING_LENGTH = 5;
+    private static final int DEFAULT_DEPTH = 2;
+    private static final int DEFAULT_RADIUS = 1;
+
+    public static void main(String[] args) throws IOException {
+        int winningLength = DEFAULT_WINNING_LENGTH;
+        int depth = DEFAULT_DEPTH;
+        int radius = DEFAULT_RADIUS;
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "-k":
+                        winningLength = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-d":
+                        depth = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-r":
+                        radius = Integer.parseInt(args[++i]);
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+
+            if (winningLength < 1 || depth < 0 || radius < 1) {
+                throw new IllegalArgumentException();
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        SparseTicTacToeGrid grid = new SparseTicTacToeGrid(winningLength);
+        SparseAlphaBetaSearch search =
+                new SparseAlphaBetaSearch(new HeuristicFunction(), radius);
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(System.in, StandardCharsets.UTF_8));
+
+        System.out.println("You play X. Type your moves as x,y.");
+
+        while (grid.getWinner() == null) {
+            System.out.print("> ");
+            System.out.flush();
+
+            String line = in.readLine();
+
+            if (line == null) {
+                return;
+            }
+
+            try {
+                String[] fields = line.split(",");
+
+                if (fields.length != 2) {
+                    throw new IllegalArgumentException(
+                            "Expected x,y: " + line.trim());
+                }
+
+                grid.mark(Integer.parseInt(fields[0].trim()),
+                          Integer.parseInt(fields[1].trim()),
+                          Mark.X);
+            } catch (IllegalArgumentException ex) {
+                System.out.println(ex.getMessage());
+                continue;
+            }
+
+            if (grid.getWinner() == null) {
+                long cell = search.search(grid, Mark.O, depth);
+                int x = SparseTicTacToeGrid.unpackX(cell);
+                int y = SparseTicTacToeGrid.unpackY(cell);
+
+                grid.mark(x, y, Mark.O);
+                System.out.println("O plays " + x + "," + y + ".");
+            }
+
+            print(grid);
+        }
+
+        System.out.println(grid.getWinner().equals(Mark.X) ?
+                           "You won." :
+                           "You lost.");
+    }
+
+    private static void print(SparseTicTacToeGrid grid) {
+        System.out.println("x = " + grid.getMinX() + ".." + grid.getMaxX() +
+                           ", y = " + grid.getMinY() + ".." + grid.getMaxY() +
+                           ":");
+        System.out.print(grid);
+    }
+}
@@ -0,0 +1,336 @@
+package net.coderodde.game.crosses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * This class implements a Lazy SMP search. The calling thread runs an
+ * iteratively deepened {@link AlphaBetaSearch} of the root up to the requested
+ * depth, while a number of helper threads search the same root over and over,
+ * every other one a ply deeper and each in a slightly shuffled move order. The
+ * threads share nothing but the transposition table: the helpers fill it with
+ * the values and the best moves of the positions the main thread is about to
+ * reach. Once the main thread is done, its result is returned and the helpers
+ * are stopped.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class LazySmpSearch {
+
+    /**
+     * The chance of swapping two neighboring moves in the order of a helper.
+     */
+    private static final double SWAP_PROBABILITY = 0.25;
+
+    private final MoveGenerator      moveGenerator;
+    private final HeuristicFunction  heuristicFunction;
+    private final TranspositionTable transpositionTable;
+    private final PruningOptions     pruningOptions;
+    private final int                helpers;
+    private final Random             random;
+
+    /**
+     * The number of nodes the main thread visited in the last search.
+     */
+    private long mainThreadNodes;
+
+    /**
+     * Creates a search with one helper per search thread but the calling one
+     * and the pruning options of the system properties.
+     */
+    public LazySmpSearch(MoveGenerator moveGenerator,
+                         HeuristicFunction heuristicFunction,
+                         TranspositionTable transpositionTable) {
+        this(moveGenerator,
+             heuristicFunction,
+             transpositionTable,
+             PruningOptions.fromSystemProperties(),
+             EngineExecutors.getSearchThreadCount() - 1,
+             new Random());
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param moveGenerator      the move generator.
+     * @param heuristicFunction  the heuristic function.
+     * @param transpositionTable the table shared by all the threads.
+     * @param pruningOptions     the selective search features of all the
+     *                           threads.
+     * @param helpers            the number of helper threads, taken from
+     *                           {@link EngineExecutors#searchPool()}.
+     * @param random             the source of the seeds of the helpers.
+     */
+    public LazySmpSearch(MoveGenerator moveGenerator,
+                         HeuristicFunction heuristicFunction,
+                         TranspositionTable transpositionTable,
+                         PruningOptions pruningOptions,
+                         int helpers,
+                         Random random) {
+        if (transpositionTable == null) {
+            throw new IllegalArgumentException(
+                    "Lazy SMP needs a transposition table.");
+        }
+
+        if (helpers < 0) {
+            throw new IllegalArgumentException(
+                    "The number of helpers must not be negative, was " +
+                    helpers + ".");
+        }
+
+        this.moveGenerator = moveGenerator;
+        this.heuristicFunction = heuristicFunction;
+        this.transpositionTable = transpositionTable;
+        this.pruningOptions = pruningOptions;
+        this.helpers = helpers;
+        this.random = random;
+    }
+
+    public int getHelpers() {
+        return helpers;
+    }
+
+    /**
+     * Returns the number of nodes the main thread visited in the last search,
+     * leaving out the nodes of the helpers.
+     *
+     * @return the node count of the main thread.
+     */
+    public long getMainThreadNodes() {
+        return mainThreadNodes;
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid}.
+     *
+     * @param grid   the position to search.
+     * @param player the player to move.
+     * @param depth  the search depth below the root moves.
+     * @return the search result of the main thread, or {@code null} if there
+     *         are no moves. The node count includes the nodes of the helpers.
+     * @see AlphaBetaSearch#search(TicTacToeGrid, Mark, int)
+     */
+    public SearchResult search(TicTacToeGrid grid, Mark player, int depth) {
+        return search(grid, player, depth, null);
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid}, reporting
+     * the root moves of each iteration of the main thread to
+     * {@code progressListener}.
+     *
+     * @param grid             the position to search.
+     * @param player           the player to move.
+     * @param depth            the search depth below the root moves.
+     * @param progressListener the progress listener, or {@code null}.
+     * @return the search result of the main thread, or {@code null} if there
+     *         are no moves.
+     * @see #search(TicTacToeGrid, Mark, int)
+     */
+    public SearchResult search(TicTacToeGrid grid,
+                               Mark player,
+                               int depth,
+                               final AIProgressListener progressListener) {
+        depth = Math.max(0, depth);
+
+        List<AlphaBetaSearch> helperSearches = new ArrayList<>(helpers);
+        List<Future<?>> futures = new ArrayList<>(helpers);
+
+        for (int i = 0; i < helpers; ++i) {
+            HelperSearch helperSearch =
+                    new HelperSearch(new Random(random.nextLong()));
+
+            helperSearches.add(helperSearch);
+            futures.add(EngineExecutors.searchPool().submit(
+                    new Helper(helperSearch,
+                               new TicTacToeGrid(grid),
+                               player,
+                               depth + i % 2)));
+        }
+
+        AlphaBetaSearch mainSearch =
+                new AlphaBetaSearch(moveGenerator,
+                                    heuristicFunction,
+                                    transpositionTable,
+                                    pruningOptions) {
+            @Override
+            protected void childSearched(int ply, int searched, int total) {
+                if (ply == 0 && progressListener != null) {
+                    progressListener.increment(1);
+                }
+            }
+        };
+
+        if (progressListener != null) {
+            progressListener.start(
+                    (depth + 1) *
+                    moveGenerator.generateMoves(grid, player).size());
+        }
+
+        SearchResult result = null;
+
+        try {
+            for (int d = 0; d <= depth; ++d) {
+                EngineEvents.IterationEvent event =
+                        new EngineEvents.IterationEvent();
+                event.begin();
+
+                result = mainSearch.search(grid, player, d);
+
+                if (result == null) {
+                    break;
+                }
+
+                if (event.shouldCommit()) {
+                    event.engine = EngineType.LAZY_SMP.toString();
+                    event.depth = d;
+                    event.nodes = result.getNodes();
+                    event.score = result.getScore();
+                    event.bestX = result.getBestX();
+                    event.bestY = result.getBestY();
+                    event.commit();
+                }
+
+                if (Score.isWin(result.getScore())) {
+                    // A win or loss is already forced.
+                    break;
+                }
+            }
+        } finally {
+            for (AlphaBetaSearch helperSearch : helperSearches) {
+                helperSearch.abort();
+            }
+
+            waitFor(futures);
+        }
+
+        if (result == null) {
+            return null;
+        }
+
+        mainThreadNodes = mainSearch.getNodes();
+
+        long nodes = mainThreadNodes;
+        long tableProbes = mainSearch.getTableProbes();
+        long tableHits = mainSearch.getTableHits();
+
+        for (AlphaBetaSearch helperSearch : helperSearches) {
+            nodes += helperSearch.getNodes();
+            tableProbes += helperSearch.getTableProbes();
+            tableHits += helperSearch.getTableHits();
+        }
+
+        EngineMetrics.get().tableProbed(tableProbes, tableHits);
+        EngineEvents.commitCacheStatistics(EngineType.LAZY_SMP.toString(),
+                                           transpositionTable,
+                                           tableProbes,
+                                           tableHits);
+
+        return new SearchResult(result.getBestState(),
+                                result.getBestX(),
+                                result.getBestY(),
+                                result.getScore(),
+                                result.getDepth(),
+                                nodes);
+    }
+
+    private static void waitFor(List<Future<?>> futures) {
+        boolean interrupted = false;
+
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    // A failed helper only costs its help.
+                    System.err.println("A Lazy SMP helper failed: " +
+                                       ex.getCause());
+                    EngineEvents.commitSearchCancelled(
+                            EngineType.LAZY_SMP.toString(),
+                            "A helper failed: " + ex.getCause());
+                    EngineMetrics.get().helperFailed();
+                    break;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * An alpha-beta search ordering the moves slightly differently from the
+     * main thread, so that the helpers spread over the tree.
+     */
+    private final class HelperSearch extends AlphaBetaSearch {
+
+        private final Random random;
+
+        HelperSearch(Random random) {
+            super(moveGenerator,
+                  heuristicFunction,
+                  transpositionTable,
+                  pruningOptions);
+            this.random = random;
+        }
+
+        @Override
+        protected void orderChildren(List<TicTacToeGrid> children,
+                                     Mark player) {
+            super.orderChildren(children, player);
+
+            for (int i = 0; i < children.size() - 1; ++i) {
+                if (random.nextDouble() < SWAP_PROBABILITY) {
+                    Collections.swap(children, i, i + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deepens the search of a helper until it is aborted.
+     */
+    private static final class Helper implements Runnable {
+
+        private final AlphaBetaSearch search;
+        private final TicTacToeGrid   grid;
+        private final Mark            player;
+        private final int             startDepth;
+
+        Helper(AlphaBetaSearch search,
+               TicTacToeGrid grid,
+               Mark player,
+               int startDepth) {
+            this.search = search;
+            this.grid = grid;
+            this.player = player;
+            this.startDepth = startDepth;
+        }
+
+        @Override
+        public void run() {
+            // Start a little below the target so that the table is filled
+            // bottom-up, then keep going deeper until stopped.
+            int depth = Math.max(0, startDepth - 2);
+
+            while (!search.isAborted()) {
+                SearchResult result = search.search(grid, player, depth);
+
+                if (result == null || Score.isWin(result.getScore())) {
+                    return;
+                }
+
+                depth++;
+            }
+        }
+    }
+}
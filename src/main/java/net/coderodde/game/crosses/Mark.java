@@ -8,5 +8,14 @@ package net.coderodde.game.crosses;
  */
 public enum Mark {
     X,
-    O,
+    O;
+
+    /**
+     * Returns the other mark.
+     * 
+     * @return the opponent of this mark.
+     */
+    public Mark opponent() {
+        return this == X ? O : X;
+    }
 }
@@ -0,0 +1,146 @@
+package net.coderodde.game.crosses;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class serves the metrics of {@link EngineMetrics} at
+ * <tt>http://localhost:PORT/metrics</tt> in the text format of Prometheus.
+ * The server listens on the loopback interface only and answers on a single
+ * daemon thread, so that it neither exposes the engine nor keeps the JVM
+ * alive.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class MetricsServer {
+
+    /**
+     * The name of the system property specifying the port of the server. The
+     * server is not started unless the property is set.
+     */
+    public static final String PORT_PROPERTY_NAME = "crosses.metricsPort";
+
+    /**
+     * The path the metrics are served at.
+     */
+    public static final String PATH = "/metrics";
+
+    private static final String CONTENT_TYPE =
+            "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Starts a server on {@code port} of the loopback interface.
+     *
+     * @param port the port, or zero for any free port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public MetricsServer(int port) throws IOException {
+        this.server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                0);
+        this.executor = Executors.newSingleThreadExecutor(
+                new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "crosses-metrics");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        server.createContext(PATH, new MetricsHandler());
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Starts a server on the port specified by the system property
+     * {@value #PORT_PROPERTY_NAME}.
+     *
+     * @return the running server, or {@code null} if the property is not set
+     *         or the server could not be started.
+     */
+    public static MetricsServer startFromSystemProperties() {
+        String value = System.getProperty(PORT_PROPERTY_NAME);
+
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            MetricsServer metricsServer =
+                    new MetricsServer(Integer.parseInt(value.trim()));
+
+            System.err.println("Serving metrics at http://localhost:" +
+                               metricsServer.getPort() + PATH);
+            return metricsServer;
+        } catch (NumberFormatException | IOException ex) {
+            System.err.println("Could not start the metrics server on port " +
+                               value + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private static final class MetricsHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                String method = exchange.getRequestMethod();
+
+                if (!method.equals("GET") && !method.equals("HEAD")) {
+                    exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+
+                StringBuilder sb = new StringBuilder(4096);
+                EngineMetrics.get().writePrometheus(sb);
+
+                byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+                exchange.getResponseHeaders().set("Content-Type",
+                                                  CONTENT_TYPE);
+
+                if (method.equals("HEAD")) {
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+
+                exchange.sendResponseHeaders(200, body.length);
+
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,676 @@
+package net.coderodde.game.crosses;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class implements a Monte Carlo tree search using the UCT selection
+ * rule. Unlike {@link AlphaBetaSearch}, it has no depth limit: it grows its
+ * tree for as long as its time budget lasts, so that the quality of the moves
+ * grows with the time spent even on boards too wide for a deep alpha-beta
+ * search.
+ * <p>
+ * The moves of the tree are restricted to the empty cells near the existing
+ * marks, while the random playouts of {@link PlayoutKernel} may mark any empty
+ * cell. An instance keeps
+ * its tree between searches: if the position to search was reached from the
+ * previous root by at most two moves, the corresponding subtree becomes the
+ * new root.
+ * <p>
+ * A search may run on several threads descending the same tree. The
+ * statistics of the nodes are updated atomically and new children are claimed
+ * through an atomic counter, so no locks are taken. A thread passing through a
+ * node counts a few lost visits to it until its playout is over, which steers
+ * the other threads towards other parts of the tree. Only one search may run
+ * on an instance at a time.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class MonteCarloTreeSearch {
+
+    /**
+     * The name of the system property specifying the exploration constant.
+     */
+    public static final String EXPLORATION_PROPERTY_NAME =
+            "crosses.uctExploration";
+
+    /**
+     * The default exploration constant of the UCT rule.
+     */
+    public static final double DEFAULT_EXPLORATION = Math.sqrt(2.0);
+
+    /**
+     * The default radius of the neighborhood of the marks the moves of the
+     * tree are chosen from.
+     */
+    public static final int DEFAULT_RADIUS = 1;
+
+    /**
+     * The absolute value of the score of a move that always wins. The score of
+     * a move is its expected result scaled to
+     * {@code [-SCORE_SCALE, SCORE_SCALE]}.
+     */
+    public static final int SCORE_SCALE = 1000;
+
+    /**
+     * The number of lost visits a thread adds to each node on its path while
+     * its playout is running.
+     */
+    private static final int VIRTUAL_LOSS = 3;
+
+    /**
+     * The rewards are counted in half points: a win is worth two and a tie is
+     * worth one.
+     */
+    private static final int WIN_REWARD = 2;
+    private static final int TIE_REWARD = 1;
+
+    /**
+     * The number of iterations between two progress reports.
+     */
+    private static final int REPORT_INTERVAL = 64;
+
+    /**
+     * The number of progress tokens the whole time budget is worth.
+     */
+    private static final int PROGRESS_TOKENS = 1000;
+
+    private final double exploration;
+    private final int    radius;
+    private final int    threads;
+    private final Random random;
+
+    private Node          root;
+    private TicTacToeGrid rootGrid;
+    private Mark          rootPlayer;
+
+    public MonteCarloTreeSearch() {
+        this(explorationFromSystemProperties(),
+             DEFAULT_RADIUS,
+             EngineExecutors.getSearchThreadCount(),
+             new Random());
+    }
+
+    public MonteCarloTreeSearch(double exploration, int radius, Random random) {
+        this(exploration, radius, 1, random);
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param exploration the exploration constant of the UCT rule.
+     * @param radius      the radius of the neighborhood of the marks the moves
+     *                    of the tree are chosen from.
+     * @param threads     the number of threads searching the tree. All but
+     *                    the calling one are taken from
+     *                    {@link EngineExecutors#searchPool()}.
+     * @param random      the source of the seeds of the threads.
+     */
+    public MonteCarloTreeSearch(double exploration,
+                                int radius,
+                                int threads,
+                                Random random) {
+        if (radius < 1) {
+            throw new IllegalArgumentException(
+                    "The neighborhood radius must be at least 1, was " +
+                    radius + ".");
+        }
+
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be at least 1, was " +
+                    threads + ".");
+        }
+
+        this.exploration = exploration;
+        this.radius = radius;
+        this.threads = threads;
+        this.random = random;
+    }
+
+    /**
+     * Returns the exploration constant specified by the system property
+     * {@value #EXPLORATION_PROPERTY_NAME}, or {@link #DEFAULT_EXPLORATION} if
+     * the property is not set or is invalid.
+     *
+     * @return the exploration constant.
+     */
+    public static double explorationFromSystemProperties() {
+        String value = System.getProperty(EXPLORATION_PROPERTY_NAME);
+
+        if (value == null) {
+            return DEFAULT_EXPLORATION;
+        }
+
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException ex) {
+            System.err.println("Bad " + EXPLORATION_PROPERTY_NAME + ": " +
+                               value + ". Using " + DEFAULT_EXPLORATION + ".");
+            return DEFAULT_EXPLORATION;
+        }
+    }
+
+    public double getExploration() {
+        return exploration;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid} for
+     * {@code timeBudget} milliseconds. At least one iteration is run.
+     *
+     * @param grid       the position to search.
+     * @param player     the player to move.
+     * @param timeBudget the time to search in milliseconds.
+     * @return the search result, or {@code null} if there are no moves. The
+     *         depth of the result is the depth of the deepest playout and its
+     *         node count is the number of playouts.
+     */
+    public SearchResult search(TicTacToeGrid grid,
+                               Mark player,
+                               long timeBudget) {
+        return search(grid, player, timeBudget, null);
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid} for
+     * {@code timeBudget} milliseconds, reporting the elapsed share of the
+     * time budget to {@code progressListener}.
+     *
+     * @param grid             the position to search.
+     * @param player           the player to move.
+     * @param timeBudget       the time to search in milliseconds.
+     * @param progressListener the progress listener, or {@code null}.
+     * @return the search result, or {@code null} if there are no moves.
+     * @see #search(TicTacToeGrid, Mark, long)
+     */
+    public SearchResult search(TicTacToeGrid grid,
+                               Mark player,
+                               long timeBudget,
+                               AIProgressListener progressListener) {
+        long startTime = System.nanoTime();
+        long budget = Math.max(1L, timeBudget) * 1000000L;
+
+        reuseTree(grid, player);
+
+        if (progressListener != null) {
+            progressListener.start(PROGRESS_TOKENS);
+        }
+
+        Worker[] workers = new Worker[threads];
+        List<Future<?>> helpers = new ArrayList<>(threads - 1);
+
+        for (int i = 0; i < threads; ++i) {
+            workers[i] = new Worker(random.nextLong(),
+                                    startTime,
+                                    budget,
+                                    i == 0 ? progressListener : null);
+        }
+
+        for (int i = 1; i < threads; ++i) {
+            helpers.add(EngineExecutors.searchPool().submit(workers[i]));
+        }
+
+        workers[0].run();
+
+        try {
+            for (Future<?> helper : helpers) {
+                helper.get();
+            }
+        } catch (InterruptedException ex) {
+            EngineEvents.commitSearchCancelled(
+                    EngineType.MONTE_CARLO.toString(),
+                    "Interrupted while waiting for the search threads.");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            EngineEvents.commitSearchCancelled(
+                    EngineType.MONTE_CARLO.toString(),
+                    "A search thread failed: " + ex.getCause());
+            throw new IllegalStateException("A search thread failed.",
+                                            ex.getCause());
+        }
+
+        long iterations = 0;
+        int maximumDepth = 0;
+
+        for (Worker worker : workers) {
+            iterations += worker.iterations;
+            maximumDepth = Math.max(maximumDepth, worker.maximumDepth);
+        }
+
+        Node best = null;
+        Edges edges = root.edges;
+
+        for (int i = 0; edges != null && i < edges.moves.length; ++i) {
+            Node child = edges.children.get(i);
+
+            if (child == null) {
+                continue;
+            }
+
+            if (child.won) {
+                best = child;
+                break;
+            }
+
+            if (best == null || child.visits > best.visits) {
+                best = child;
+            }
+        }
+
+        if (best == null) {
+            return null;
+        }
+
+        int x = best.move % grid.getWidth();
+        int y = best.move / grid.getWidth();
+        TicTacToeGrid bestState = new TicTacToeGrid(grid);
+        bestState.mark(x, y, player);
+
+        int score;
+
+        if (best.won) {
+            score = Score.win(player, 1);
+        } else {
+            double expectedResult =
+                    (double) best.reward / (WIN_REWARD * best.visits);
+            score = (int) Math.round((2.0 * expectedResult - 1.0) *
+                                     SCORE_SCALE);
+
+            if (player.equals(Mark.O)) {
+                score = -score;
+            }
+        }
+
+        return new SearchResult(bestState,
+                                x,
+                                y,
+                                score,
+                                maximumDepth,
+                                iterations);
+    }
+
+    /**
+     * Makes the node of {@code grid} with {@code player} to move the root.
+     * The node is looked up within two moves of the previous root; if not
+     * found, the tree is discarded.
+     */
+    private void reuseTree(TicTacToeGrid grid, Mark player) {
+        Node reused = null;
+
+        if (root != null
+                && rootGrid.getWidth() == grid.getWidth()
+                && rootGrid.getHeight() == grid.getHeight()
+                && rootGrid.getWinningLength() == grid.getWinningLength()) {
+            reused = findNode(root,
+                              rootGrid.getHashKey(),
+                              grid.getHashKey(),
+                              player,
+                              2);
+        }
+
+        rootGrid = new TicTacToeGrid(grid);
+        rootPlayer = player;
+        root = reused != null ?
+               reused :
+               new Node(-1, player.opponent(), false, 0);
+    }
+
+    private static Node findNode(Node node,
+                                 long hashKey,
+                                 long targetHashKey,
+                                 Mark player,
+                                 int depth) {
+        if (hashKey == targetHashKey && node.player != player) {
+            return node;
+        }
+
+        Edges edges = node.edges;
+
+        if (depth == 0 || edges == null) {
+            return null;
+        }
+
+        for (int i = 0; i < edges.moves.length; ++i) {
+            Node child = edges.children.get(i);
+
+            if (child == null) {
+                continue;
+            }
+
+            Node found = findNode(child,
+                                  hashKey ^ TicTacToeGrid.zobristKey(
+                                          child.move, child.player),
+                                  targetHashKey,
+                                  player,
+                                  depth - 1);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Runs the iterations of one search thread until the time budget is
+     * spent.
+     */
+    private final class Worker implements Runnable {
+
+        private final Random             random;
+        private final PlayoutKernel      kernel;
+        private final long               startTime;
+        private final long               budget;
+        private final AIProgressListener progressListener;
+
+        /**
+         * The nodes from the root to the node being played out.
+         */
+        private final List<Node> path = new ArrayList<>();
+
+        long iterations;
+        int  maximumDepth;
+
+        Worker(long seed,
+               long startTime,
+               long budget,
+               AIProgressListener progressListener) {
+            this.random = new Random(seed);
+            this.kernel = new PlayoutKernel(rootGrid, seed);
+            this.startTime = startTime;
+            this.budget = budget;
+            this.progressListener = progressListener;
+        }
+
+        @Override
+        public void run() {
+            int reportedTokens = 0;
+            long elapsed;
+
+            do {
+                maximumDepth = Math.max(maximumDepth, iterate());
+                elapsed = System.nanoTime() - startTime;
+
+                if (++iterations % REPORT_INTERVAL == 0
+                        && progressListener != null) {
+                    int tokens = (int) Math.min(
+                            PROGRESS_TOKENS,
+                            PROGRESS_TOKENS * elapsed / budget);
+
+                    if (tokens > reportedTokens) {
+                        progressListener.increment(tokens - reportedTokens);
+                        reportedTokens = tokens;
+                    }
+                }
+            } while (!root.isTerminal() && elapsed < budget);
+        }
+
+        /**
+         * Runs one iteration: selects a path down the tree, expands it by one
+         * node, plays the game out and updates the statistics along the path.
+         *
+         * @return the depth of the last node of the path.
+         */
+        private int iterate() {
+            Node node = root;
+            Mark player = rootPlayer;
+
+            kernel.reset();
+            path.clear();
+            path.add(node);
+            node.addVisits(VIRTUAL_LOSS);
+
+            while (!node.won) {
+                Edges edges = node.edges;
+
+                if (edges == null) {
+                    edges = node.initializeEdges(computeMoves());
+                }
+
+                if (edges.moves.length == 0) {
+                    break;
+                }
+
+                Node child = expand(edges, player);
+                boolean expanded = child != null;
+
+                if (!expanded) {
+                    child = select(node, edges);
+
+                    if (child == null) {
+                        // The claimed children are not published yet.
+                        break;
+                    }
+
+                    kernel.play(child.move, player);
+                    child.addVisits(VIRTUAL_LOSS);
+                }
+
+                node = child;
+                player = player.opponent();
+                path.add(node);
+
+                if (expanded) {
+                    break;
+                }
+            }
+
+            Mark winner;
+
+            if (node.won) {
+                winner = node.player;
+            } else if (node.isTerminal()) {
+                winner = null;
+            } else {
+                winner = kernel.playout(player);
+            }
+
+            for (Node pathNode : path) {
+                int reward = 0;
+
+                if (winner == null) {
+                    reward = TIE_REWARD;
+                } else if (winner == pathNode.player) {
+                    reward = WIN_REWARD;
+                }
+
+                pathNode.update(reward, 1 - VIRTUAL_LOSS);
+            }
+
+            return path.size() - 1;
+        }
+
+        /**
+         * Claims an untried move of {@code edges}, makes it on the kernel and
+         * publishes the resulting child.
+         *
+         * @return the new child, or {@code null} if all the moves are tried.
+         */
+        private Node expand(Edges edges, Mark player) {
+            int index = edges.claimMove();
+
+            if (index < 0) {
+                return null;
+            }
+
+            int move = edges.moves[index];
+            Node child = new Node(move,
+                                  player,
+                                  kernel.play(move, player),
+                                  VIRTUAL_LOSS);
+            edges.children.set(index, child);
+            return child;
+        }
+
+        /**
+         * Returns the published child of {@code node} maximizing the UCT
+         * value, or {@code null} if there is none.
+         */
+        private Node select(Node node, Edges edges) {
+            double logVisits = Math.log(node.visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+
+            for (int i = 0; i < edges.moves.length; ++i) {
+                Node child = edges.children.get(i);
+
+                if (child == null) {
+                    continue;
+                }
+
+                int visits = child.visits;
+                double value = (double) child.reward / (WIN_REWARD * visits) +
+                               exploration * Math.sqrt(logVisits / visits);
+
+                if (value > bestValue) {
+                    best = child;
+                    bestValue = value;
+                }
+            }
+
+            return best;
+        }
+
+        /**
+         * Returns the moves of the position on the kernel in random order.
+         */
+        private int[] computeMoves() {
+            int[] moves = kernel.getCandidateMoves(radius);
+
+            for (int i = moves.length - 1; i > 0; --i) {
+                int j = random.nextInt(i + 1);
+                int tmp = moves[i];
+                moves[i] = moves[j];
+                moves[j] = tmp;
+            }
+
+            return moves;
+        }
+    }
+
+    /**
+     * The moves of a node and its children. Each child is created by the
+     * thread that claimed its move and is stored at the index of the move.
+     */
+    private static final class Edges {
+
+        final int[] moves;
+        final AtomicReferenceArray<Node> children;
+        final AtomicInteger claimedMoves = new AtomicInteger();
+
+        Edges(int[] moves) {
+            this.moves = moves;
+            this.children = new AtomicReferenceArray<>(moves.length);
+        }
+
+        /**
+         * Returns the index of a move no other thread has claimed, or
+         * {@code -1} if all the moves are claimed.
+         */
+        int claimMove() {
+            if (claimedMoves.get() >= moves.length) {
+                return -1;
+            }
+
+            int index = claimedMoves.getAndIncrement();
+            return index < moves.length ? index : -1;
+        }
+    }
+
+    /**
+     * A node of the search tree. The statistics of a node are kept from the
+     * point of view of the player who made the move leading to it.
+     */
+    private static final class Node {
+
+        private static final VarHandle VISITS;
+        private static final VarHandle REWARD;
+        private static final VarHandle EDGES;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                VISITS = lookup.findVarHandle(Node.class, "visits", int.class);
+                REWARD = lookup.findVarHandle(Node.class, "reward", long.class);
+                EDGES = lookup.findVarHandle(Node.class, "edges", Edges.class);
+            } catch (ReflectiveOperationException ex) {
+                throw new ExceptionInInitializerError(ex);
+            }
+        }
+
+        final int     move;
+        final Mark    player;
+        final boolean won;
+
+        /**
+         * The number of visits, including the virtual losses of the playouts
+         * in progress.
+         */
+        volatile int visits;
+
+        /**
+         * The sum of the rewards in half points.
+         */
+        volatile long reward;
+
+        /**
+         * The moves and the children, or {@code null} if not computed yet.
+         */
+        volatile Edges edges;
+
+        /**
+         * Creates a node. A child is created with the virtual loss of the
+         * thread creating it already counted, so that no thread ever sees a
+         * child without visits.
+         */
+        Node(int move, Mark player, boolean won, int visits) {
+            this.move = move;
+            this.player = player;
+            this.won = won;
+            this.visits = visits;
+        }
+
+        boolean isTerminal() {
+            Edges currentEdges = edges;
+            return won || (currentEdges != null
+                           && currentEdges.moves.length == 0);
+        }
+
+        /**
+         * Sets the edges of this node unless another thread did first.
+         *
+         * @return the edges of this node.
+         */
+        Edges initializeEdges(int[] moves) {
+            Edges newEdges = new Edges(moves);
+
+            if (EDGES.compareAndSet(this, null, newEdges)) {
+                return newEdges;
+            }
+
+            return edges;
+        }
+
+        void addVisits(int delta) {
+            VISITS.getAndAdd(this, delta);
+        }
+
+        void update(int reward, int visitDelta) {
+            REWARD.getAndAdd(this, (long) reward);
+            VISITS.getAndAdd(this, visitDelta);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package net.coderodde.game.crosses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class generates next states by marking only the empty cells that lie
+ * within a given Chebyshev radius of an existing mark. The candidate set is
+ * carried along with each grid and updated incrementally as marks are added.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class NeighborhoodMoveGenerator extends MoveGenerator {
+
+    /**
+     * The default neighborhood radius.
+     */
+    public static final int DEFAULT_RADIUS = 2;
+
+    /**
+     * The name of the system property specifying the neighborhood radius.
+     */
+    public static final String RADIUS_PROPERTY_NAME = "crosses.candidateRadius";
+
+    private final int radius;
+
+    public NeighborhoodMoveGenerator() {
+        this(Integer.getInteger(RADIUS_PROPERTY_NAME, DEFAULT_RADIUS));
+    }
+
+    public NeighborhoodMoveGenerator(int radius) {
+        if (radius < 1) {
+            throw new IllegalArgumentException(
+                    "The neighborhood radius must be at least 1, was " +
+                    radius + ".");
+        }
+
+        this.radius = radius;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    @Override
+    public List<TicTacToeGrid> generateMoves(TicTacToeGrid state, Mark player) {
+        CandidateMask mask = state.getCandidateMask(radius);
+        int width = state.getWidth();
+
+        if (mask.isEmpty()) {
+            // No marks yet: open in the center.
+            List<TicTacToeGrid> next = new ArrayList<>(1);
+            TicTacToeGrid grid = new TicTacToeGrid(state);
+            grid.mark(width / 2, state.getHeight() / 2, player);
+            next.add(grid);
+            return next;
+        }
+
+        int[] candidates = mask.getCandidates();
+        List<TicTacToeGrid> next = new ArrayList<>(candidates.length);
+
+        for (int cell : candidates) {
+            TicTacToeGrid grid = new TicTacToeGrid(state);
+            grid.mark(cell % width, cell / width, player);
+            next.add(grid);
+        }
+
+        return next;
+    }
+}
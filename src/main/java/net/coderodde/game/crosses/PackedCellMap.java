@@ -0,0 +1,158 @@
+package net.coderodde.game.crosses;
+
+/**
+ * This class implements an open-addressing hash map from packed cell
+ * coordinates to marks. Keys are packed by {@link #pack(int, int)}, and the
+ * marks are stored as single bytes, so the map allocates no objects per
+ * entry. Collisions are resolved by linear probing. The cells of a grid are
+ * never emptied, so the map supports no removals.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+final class PackedCellMap {
+
+    private static final int  MINIMUM_CAPACITY = 16;
+    private static final byte EMPTY            = 0;
+    private static final Mark[] MARKS          = Mark.values();
+
+    private long[] keys;
+
+    /**
+     * {@code 0} for a free slot, otherwise the ordinal of the mark plus one.
+     */
+    private byte[] values;
+    private int    size;
+    private int    mask;
+
+    PackedCellMap() {
+        this(MINIMUM_CAPACITY);
+    }
+
+    PackedCellMap(int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+
+        while (capacity < 2 * expectedSize) {
+            capacity <<= 1;
+        }
+
+        this.keys   = new long[capacity];
+        this.values = new byte[capacity];
+        this.mask   = capacity - 1;
+    }
+
+    PackedCellMap(PackedCellMap other) {
+        this.keys   = other.keys.clone();
+        this.values = other.values.clone();
+        this.size   = other.size;
+        this.mask   = other.mask;
+    }
+
+    static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int unpackY(long key) {
+        return (int) key;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Mark get(int x, int y) {
+        long key = pack(x, y);
+
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (values[slot] == EMPTY) {
+                return null;
+            }
+
+            if (keys[slot] == key) {
+                return MARKS[values[slot] - 1];
+            }
+        }
+    }
+
+    /**
+     * Associates {@code mark} with the cell {@code (x, y)}.
+     *
+     * @return the mark previously stored in the cell, or {@code null}.
+     */
+    Mark put(int x, int y, Mark mark) {
+        long key = pack(x, y);
+        byte value = (byte) (mark.ordinal() + 1);
+        int slot = slot(key);
+
+        for (; values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                Mark old = MARKS[values[slot] - 1];
+                values[slot] = value;
+                return old;
+            }
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size > (keys.length >>> 1)) {
+            resize(keys.length << 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the number of slots. Together with {@link #isUsed(int)},
+     * {@link #keyAt(int)} and {@link #markAt(int)} allows iterating over the
+     * entries without allocating an iterator.
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    boolean isUsed(int slot) {
+        return values[slot] != EMPTY;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    Mark markAt(int slot) {
+        return MARKS[values[slot] - 1];
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys   = keys;
+        byte[] oldValues = values;
+
+        keys   = new long[newCapacity];
+        values = new byte[newCapacity];
+        mask   = newCapacity - 1;
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldValues[i] == EMPTY) {
+                continue;
+            }
+
+            int slot = slot(oldKeys[i]);
+
+            while (values[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,590 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs the AI headless, driven by the line-based protocol of the
+ * Gomocup tournament manager piskvork over the standard streams. The supported
+ * commands are:
+ * <pre>
+ * START size           starts a game on a square board; answers OK
+ * RECTSTART w,h        starts a game on a rectangular board; answers OK
+ * RESTART              starts a new game on the same board; answers OK
+ * BEGIN                asks for the first move of the game
+ * TURN x,y             plays the move of the opponent and asks for a move
+ * BOARD                sets up a position from the following lines of the
+ *                      form x,y,who (1 for own, 2 for the opponent's stones)
+ *                      ended by DONE, and asks for a move
+ * TAKEBACK x,y         takes the last move back; answers OK
+ * INFO key value       sets timeout_turn, timeout_match or time_left, all in
+ *                      milliseconds; the other keys are ignored
+ * ABOUT                answers with the name of the engine
+ * END                  exits
+ * </pre>
+ * A move is answered as {@code x,y}, an error as {@code ERROR message} and an
+ * unknown command as {@code UNKNOWN message}.
+ * <p>
+ * Each move is searched by iterative deepening until its time budget is spent,
+ * and the move of the deepest completed iteration is played. The budget is
+ * the turn time limit, or a share of the match time left if that is smaller,
+ * less a safety margin. The transposition table is kept for the whole match.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class PiskvorkEngine {
+
+    private static final String USAGE =
+            "Usage: PiskvorkEngine [-k WINNING_LENGTH] [-e alpha-beta|" +
+            "monte-carlo]";
+
+    private static final String ABOUT =
+            "name=\"NoughtsAndCrosses\", version=\"1.6\", " +
+            "author=\"Rodion Efremov\"";
+
+    private static final int DEFAULT_WINNING_LENGTH = 5;
+
+    /**
+     * The turn time limit until the manager sets one.
+     */
+    private static final long DEFAULT_TURN_TIMEOUT = 5000L;
+
+    /**
+     * The time kept back from each budget for answering the move.
+     */
+    private static final long SAFETY_MARGIN = 50L;
+
+    /**
+     * The number of moves the match time left is expected to last.
+     */
+    private static final int MOVES_TO_GO = 20;
+
+    /**
+     * The deepest iteration ever started.
+     */
+    private static final int MAXIMUM_DEPTH = 64;
+
+    private final BufferedReader in;
+    private final PrintWriter    out;
+    private final int            winningLength;
+    private final EngineType     engineType;
+
+    private final MoveGenerator     moveGenerator =
+            new NeighborhoodMoveGenerator();
+    private final HeuristicFunction heuristicFunction =
+            new HeuristicFunction();
+    private final TranspositionTable transpositionTable =
+            TranspositionTable.fromSystemProperties();
+    private final PruningOptions pruningOptions =
+            PruningOptions.fromSystemProperties();
+    private final MonteCarloTreeSearch monteCarloTreeSearch =
+            new MonteCarloTreeSearch();
+
+    /**
+     * Aborts the searches whose time is up.
+     */
+    private final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "crosses-piskvork-timer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private int width;
+    private int height;
+    private TicTacToeGrid grid;
+
+    /**
+     * The packed cells of the moves of the game so far, in order. The players
+     * alternate, starting with <tt>X</tt>.
+     */
+    private final List<Integer> moves = new ArrayList<>();
+
+    private long turnTimeout  = DEFAULT_TURN_TIMEOUT;
+    private long matchTimeout = 0L;
+    private long timeLeft     = Long.MAX_VALUE;
+
+    public PiskvorkEngine(BufferedReader in,
+                          PrintWriter out,
+                          int winningLength,
+                          EngineType engineType) {
+        this.in = in;
+        this.out = out;
+        this.winningLength = winningLength;
+        this.engineType = engineType;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int winningLength = DEFAULT_WINNING_LENGTH;
+        EngineType engineType = EngineType.ALPHA_BETA;
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "-k":
+                        winningLength = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-e":
+                        engineType = parseEngineType(args[++i]);
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        MetricsServer.startFromSystemProperties();
+
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+
+        new PiskvorkEngine(in, out, winningLength, engineType).run();
+    }
+
+    /**
+     * Serves the commands until {@code END} or the end of the input.
+     *
+     * @throws IOException if reading or writing fails.
+     */
+    public void run() throws IOException {
+        String line;
+
+        try {
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                if (!handle(line)) {
+                    break;
+                }
+
+                out.flush();
+            }
+        } finally {
+            out.flush();
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Handles one command line.
+     *
+     * @return {@code false} if the engine should exit.
+     */
+    private boolean handle(String line) throws IOException {
+        int space = line.indexOf(' ');
+        String command = (space < 0 ? line : line.substring(0, space))
+                         .toUpperCase(Locale.ROOT);
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+
+        try {
+            switch (command) {
+                case "START":
+                    int size = Integer.parseInt(argument);
+                    startGame(size, size);
+                    break;
+
+                case "RECTSTART":
+                    int[] dimensions = parsePair(argument);
+                    startGame(dimensions[0], dimensions[1]);
+                    break;
+
+                case "RESTART":
+                    requireGame();
+                    startGame(width, height);
+                    break;
+
+                case "BEGIN":
+                    requireGame();
+
+                    if (!moves.isEmpty()) {
+                        out.println("ERROR The game has already begun.");
+                        break;
+                    }
+
+                    answerMove();
+                    break;
+
+                case "TURN":
+                    requireGame();
+                    int[] move = parsePair(argument);
+                    play(move[0], move[1]);
+                    answerMove();
+                    break;
+
+                case "BOARD":
+                    requireGame();
+                    readBoard();
+                    answerMove();
+                    break;
+
+                case "TAKEBACK":
+                    requireGame();
+                    takeBack(parsePair(argument));
+                    out.println("OK");
+                    break;
+
+                case "INFO":
+                    info(argument);
+                    break;
+
+                case "ABOUT":
+                    out.println(ABOUT);
+                    break;
+
+                case "END":
+                    return false;
+
+                default:
+                    out.println("UNKNOWN " + command);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            out.println("ERROR " + ex.getMessage());
+        }
+
+        return true;
+    }
+
+    private void startGame(int width, int height) {
+        int k = Math.min(winningLength, Math.min(width, height));
+
+        this.grid = new TicTacToeGrid(height, width, k);
+        this.width = width;
+        this.height = height;
+        this.moves.clear();
+        out.println("OK");
+    }
+
+    /**
+     * Reads the stone lines of a {@code BOARD} command up to {@code DONE}.
+     * The own stones and the opponent's are interleaved so that the players
+     * alternate, which holds for any position reached by alternating moves.
+     * All the lines are read before any is validated, so that a bad block is
+     * consumed as a whole, and the position is replaced only if the whole
+     * block is valid.
+     */
+    private void readBoard() throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+
+            if (line.equalsIgnoreCase("DONE")) {
+                break;
+            }
+
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+
+        List<Integer> own = new ArrayList<>();
+        List<Integer> opponent = new ArrayList<>();
+
+        for (String stone : lines) {
+            String[] fields = stone.split(",");
+
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Bad stone: " + stone);
+            }
+
+            int x = Integer.parseInt(fields[0].trim());
+            int y = Integer.parseInt(fields[1].trim());
+            int cell = checkCell(x, y);
+
+            switch (fields[2].trim()) {
+                case "1":
+                    own.add(cell);
+                    break;
+
+                case "2":
+                    opponent.add(cell);
+                    break;
+
+                default:
+                    // Stones of the winning lines of renju; not used.
+            }
+        }
+
+        // The player to move next, which is us, moves first if the counts
+        // are equal.
+        List<Integer> first;
+        List<Integer> second;
+
+        if (own.size() == opponent.size()) {
+            first = own;
+            second = opponent;
+        } else if (opponent.size() == own.size() + 1) {
+            first = opponent;
+            second = own;
+        } else {
+            throw new IllegalArgumentException(
+                    "Unbalanced board: " + own.size() + " own and " +
+                    opponent.size() + " opponent stones.");
+        }
+
+        List<Integer> newMoves = new ArrayList<>();
+
+        for (int i = 0; i < first.size(); ++i) {
+            newMoves.add(first.get(i));
+
+            if (i < second.size()) {
+                newMoves.add(second.get(i));
+            }
+        }
+
+        grid = replay(newMoves);
+        moves.clear();
+        moves.addAll(newMoves);
+    }
+
+    private void takeBack(int[] move) {
+        int cell = checkCell(move[0], move[1]);
+
+        if (moves.isEmpty() || moves.get(moves.size() - 1) != cell) {
+            throw new IllegalArgumentException(
+                    "Not the last move: " + move[0] + "," + move[1]);
+        }
+
+        grid = replay(moves.subList(0, moves.size() - 1));
+        moves.remove(moves.size() - 1);
+    }
+
+    /**
+     * Returns a new grid with the moves {@code cells} played in order, leaving
+     * the current position untouched.
+     *
+     * @throws IllegalArgumentException if a cell is occupied.
+     */
+    private TicTacToeGrid replay(List<Integer> cells) {
+        TicTacToeGrid replayed =
+                new TicTacToeGrid(height, width, grid.getWinningLength());
+
+        for (int cell : cells) {
+            mark(replayed, cell);
+        }
+
+        return replayed;
+    }
+
+    private void info(String argument) {
+        String[] fields = argument.split("\\s+", 2);
+
+        if (fields.length < 2) {
+            return;
+        }
+
+        try {
+            switch (fields[0].toLowerCase(Locale.ROOT)) {
+                case "timeout_turn":
+                    turnTimeout = Long.parseLong(fields[1]);
+                    break;
+
+                case "timeout_match":
+                    matchTimeout = Long.parseLong(fields[1]);
+                    break;
+
+                case "time_left":
+                    timeLeft = Long.parseLong(fields[1]);
+                    break;
+
+                default:
+                    // Not needed by this engine.
+            }
+        } catch (NumberFormatException ex) {
+            // INFO has no answer, so bad values are ignored.
+        }
+    }
+
+    private void play(int x, int y) {
+        play(checkCell(x, y));
+    }
+
+    private void play(int cell) {
+        mark(grid, cell);
+        moves.add(cell);
+    }
+
+    private void mark(TicTacToeGrid target, int cell) {
+        int x = cell % width;
+        int y = cell / width;
+
+        if (target.read(x, y) != null) {
+            throw new IllegalArgumentException(
+                    "Occupied: " + x + "," + y);
+        }
+
+        target.mark(x, y, target.getPlayerToMove());
+    }
+
+    /**
+     * Searches, plays and prints the move of the engine.
+     */
+    private void answerMove() {
+        Mark player = grid.getPlayerToMove();
+        long budget = getTimeBudget();
+        long startNanos = System.nanoTime();
+
+        EngineMetrics.get().searchStarted(engineType);
+
+        SearchResult result = engineType == EngineType.MONTE_CARLO ?
+                              monteCarloTreeSearch.search(grid,
+                                                          player,
+                                                          budget) :
+                              searchUntil(player, startNanos, budget);
+
+        EngineMetrics.get().searchFinished(engineType,
+                                           System.nanoTime() - startNanos,
+                                           result == null ?
+                                                   0 :
+                                                   result.getNodes());
+
+        if (result == null) {
+            out.println("ERROR The board is full.");
+            return;
+        }
+
+        play(result.getBestX(), result.getBestY());
+        out.println(result.getBestX() + "," + result.getBestY());
+    }
+
+    /**
+     * Deepens an alpha-beta search of the move of {@code player} until
+     * {@code budget} milliseconds after {@code startNanos}.
+     *
+     * @return the result of the deepest completed iteration, or {@code null}
+     *         if there are no moves.
+     */
+    private SearchResult searchUntil(Mark player,
+                                     long startNanos,
+                                     long budget) {
+        transpositionTable.newSearch();
+
+        // The shallowest iteration is always completed so that there is a
+        // move to answer.
+        SearchResult best = new AlphaBetaSearch(moveGenerator,
+                                                heuristicFunction,
+                                                transpositionTable,
+                                                pruningOptions)
+                                    .search(grid, player, 0);
+
+        if (best == null || Score.isWin(best.getScore())) {
+            return best;
+        }
+
+        final AlphaBetaSearch search = new AlphaBetaSearch(moveGenerator,
+                                                           heuristicFunction,
+                                                           transpositionTable,
+                                                           pruningOptions);
+        long remaining = budget * 1000000L - (System.nanoTime() - startNanos);
+
+        ScheduledFuture<?> abort = timer.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                search.abort();
+            }
+        }, Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+
+        try {
+            for (int depth = 1; depth <= MAXIMUM_DEPTH; ++depth) {
+                SearchResult result = search.search(grid, player, depth);
+
+                if (search.isAborted()) {
+                    break;
+                }
+
+                best = result;
+
+                if (Score.isWin(result.getScore())) {
+                    break;
+                }
+            }
+        } finally {
+            abort.cancel(false);
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns the time to spend on the next move in milliseconds.
+     */
+    private long getTimeBudget() {
+        long budget = turnTimeout <= 0 ? 1L : turnTimeout;
+
+        if (matchTimeout > 0 && timeLeft != Long.MAX_VALUE) {
+            budget = Math.min(budget, timeLeft / MOVES_TO_GO);
+        }
+
+        return Math.max(1L, budget - SAFETY_MARGIN);
+    }
+
+    private void requireGame() {
+        if (grid == null) {
+            throw new IllegalArgumentException("No game started.");
+        }
+    }
+
+    private int checkCell(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IllegalArgumentException(
+                    "Outside the board: " + x + "," + y);
+        }
+
+        return y * width + x;
+    }
+
+    private static int[] parsePair(String argument) {
+        String[] fields = argument.split(",");
+
+        if (fields.length != 2) {
+            throw new IllegalArgumentException("Expected x,y: " + argument);
+        }
+
+        return new int[]{ Integer.parseInt(fields[0].trim()),
+                          Integer.parseInt(fields[1].trim()) };
+    }
+
+    private static EngineType parseEngineType(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "alpha-beta":
+                return EngineType.ALPHA_BETA;
+
+            case "monte-carlo":
+                return EngineType.MONTE_CARLO;
+
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package net.coderodde.game.crosses;
+
+import java.util.Random;
+
+/**
+ * This class measures the speed of the random playouts of
+ * {@link MonteCarloTreeSearch}. It plays random games from an empty board,
+ * first on a {@link TicTacToeGrid} copied for each game, which is how the
+ * playouts were played before {@link PlayoutKernel}, and then on a kernel, and
+ * prints the playouts and moves per second of both.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class PlayoutBenchmark {
+
+    private static final String USAGE =
+            "Usage: PlayoutBenchmark [-s SIZE] [-k WINNING_LENGTH] " +
+            "[-t SECONDS]";
+
+    private static final int DEFAULT_SIZE = 15;
+    private static final int DEFAULT_WINNING_LENGTH = 5;
+    private static final int DEFAULT_SECONDS = 3;
+
+    /**
+     * The directions of the lines through a cell, one per axis.
+     */
+    private static final int[][] LINE_DIRECTIONS = {
+        { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 }
+    };
+
+    public static void main(String[] args) {
+        int size = DEFAULT_SIZE;
+        int winningLength = DEFAULT_WINNING_LENGTH;
+        int seconds = DEFAULT_SECONDS;
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "-s":
+                        size = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-k":
+                        winningLength = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-t":
+                        seconds = Integer.parseInt(args[++i]);
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        TicTacToeGrid grid = new TicTacToeGrid(size, size, winningLength);
+        long budget = seconds * 1000000000L;
+
+        // Warm up both, then measure each for the full time.
+        measureGrid(grid, budget / 4);
+        measureKernel(grid, budget / 4);
+
+        report("grid", measureGrid(grid, budget), budget);
+        report("kernel", measureKernel(grid, budget), budget);
+    }
+
+    /**
+     * Plays random games on copies of {@code grid} for {@code budget}
+     * nanoseconds.
+     *
+     * @return the number of playouts and the number of moves.
+     */
+    private static long[] measureGrid(TicTacToeGrid grid, long budget) {
+        Random random = new Random();
+        long startTime = System.nanoTime();
+        long playouts = 0;
+        long moves = 0;
+
+        while (System.nanoTime() - startTime < budget) {
+            moves += playout(new TicTacToeGrid(grid), Mark.X, random);
+            playouts++;
+        }
+
+        return new long[]{ playouts, moves };
+    }
+
+    /**
+     * Plays random games on a kernel rooted at {@code grid} for
+     * {@code budget} nanoseconds.
+     *
+     * @return the number of playouts and the number of moves.
+     */
+    private static long[] measureKernel(TicTacToeGrid grid, long budget) {
+        PlayoutKernel kernel = new PlayoutKernel(grid, new Random().nextLong());
+        long startTime = System.nanoTime();
+        long playouts = 0;
+        long moves = 0;
+
+        while (System.nanoTime() - startTime < budget) {
+            kernel.reset();
+
+            int emptyCount = kernel.getEmptyCount();
+
+            kernel.playout(Mark.X);
+            moves += emptyCount - kernel.getEmptyCount();
+            playouts++;
+        }
+
+        return new long[]{ playouts, moves };
+    }
+
+    private static void report(String name, long[] counts, long budget) {
+        double seconds = budget / 1e9;
+
+        System.out.printf("%-8s %12.0f playouts/s %14.0f moves/s%n",
+                          name,
+                          counts[0] / seconds,
+                          counts[1] / seconds);
+    }
+
+    /**
+     * Plays random moves on {@code grid}, starting with {@code player}, until
+     * the game is over.
+     *
+     * @return the number of moves made.
+     */
+    private static int playout(TicTacToeGrid grid, Mark player, Random random) {
+        int width = grid.getWidth();
+        int[] emptyCells = new int[width * grid.getHeight()];
+        int size = 0;
+
+        for (int y = 0; y < grid.getHeight(); ++y) {
+            for (int x = 0; x < width; ++x) {
+                if (grid.read(x, y) == null) {
+                    emptyCells[size++] = y * width + x;
+                }
+            }
+        }
+
+        int moves = 0;
+
+        while (size > 0) {
+            int index = random.nextInt(size);
+            int cell = emptyCells[index];
+            emptyCells[index] = emptyCells[--size];
+
+            grid.mark(cell % width, cell / width, player);
+            moves++;
+
+            if (isWinningMove(grid, cell % width, cell / width, player)) {
+                break;
+            }
+
+            player = player.opponent();
+        }
+
+        return moves;
+    }
+
+    private static boolean isWinningMove(TicTacToeGrid grid,
+                                         int x,
+                                         int y,
+                                         Mark player) {
+        for (int[] direction : LINE_DIRECTIONS) {
+            int length = 1;
+
+            for (int sign = -1; sign <= 1; sign += 2) {
+                int dx = sign * direction[0];
+                int dy = sign * direction[1];
+                int cx = x + dx;
+                int cy = y + dy;
+
+                while (cx >= 0 && cx < grid.getWidth()
+                        && cy >= 0 && cy < grid.getHeight()
+                        && grid.read(cx, cy) == player) {
+                    length++;
+                    cx += dx;
+                    cy += dy;
+                }
+            }
+
+            if (length >= grid.getWinningLength()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
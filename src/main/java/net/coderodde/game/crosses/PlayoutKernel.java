@@ -0,0 +1,308 @@
+package net.coderodde.game.crosses;
+
+import java.util.Arrays;
+
+/**
+ * This class plays random games from a fixed root position as fast as
+ * possible. It keeps a scratch copy of the board in a byte array framed by
+ * sentinel cells, so that scanning a line needs no bounds checks, along with a
+ * list of the empty cells from which the random moves are removed by swapping
+ * with the last one. A move is checked for a win only along the four lines
+ * through it.
+ * <p>
+ * The cells are exchanged with the callers as packed indices
+ * {@code y * width + x}. An instance is meant to be used by one thread.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+final class PlayoutKernel {
+
+    private static final byte EMPTY    = 0;
+    private static final byte X        = 1;
+    private static final byte O        = 2;
+    private static final byte SENTINEL = 3;
+
+    private final int width;
+    private final int height;
+    private final int winningLength;
+
+    /**
+     * The distance between the starts of two consecutive rows of the board.
+     * Each row is preceded by one sentinel cell.
+     */
+    private final int stride;
+
+    /**
+     * The index steps along the horizontal, the vertical and the two diagonal
+     * lines.
+     */
+    private final int[] directions;
+
+    private final byte[] rootBoard;
+    private final int[]  rootEmptyCells;
+    private final int[]  rootEmptyPositions;
+    private final int    rootEmptyCount;
+    private final int    rootMarks;
+
+    /**
+     * The scratch board. Cell {@code (x, y)} is at {@code index(x, y)}.
+     */
+    private final byte[] board;
+
+    /**
+     * The board indices of the empty cells in no particular order.
+     */
+    private final int[] emptyCells;
+
+    /**
+     * Maps the board index of each empty cell to its position in
+     * {@code emptyCells}.
+     */
+    private final int[] emptyPositions;
+
+    private int emptyCount;
+    private int marks;
+
+    /**
+     * Used for marking the cells already collected by
+     * {@link #getCandidateMoves(int)}.
+     */
+    private final int[] stamps;
+    private int stamp;
+
+    /**
+     * The state of the xorshift generator of the random moves.
+     */
+    private long seed;
+
+    /**
+     * Creates a kernel playing from the position of {@code grid}.
+     *
+     * @param grid the root position.
+     * @param seed the seed of the random moves.
+     */
+    PlayoutKernel(TicTacToeGrid grid, long seed) {
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.winningLength = grid.getWinningLength();
+        this.stride = width + 1;
+        this.directions = new int[]{ 1, stride, stride + 1, stride - 1 };
+
+        int size = (height + 3) * stride;
+
+        this.rootBoard = new byte[size];
+        this.rootEmptyCells = new int[width * height];
+        this.rootEmptyPositions = new int[size];
+        this.board = new byte[size];
+        this.emptyCells = new int[width * height];
+        this.emptyPositions = new int[size];
+        this.stamps = new int[size];
+
+        Arrays.fill(rootBoard, SENTINEL);
+
+        int count = 0;
+        int markCount = 0;
+
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int index = index(x, y);
+                Mark mark = grid.read(x, y);
+
+                if (mark == null) {
+                    rootBoard[index] = EMPTY;
+                    rootEmptyPositions[index] = count;
+                    rootEmptyCells[count++] = index;
+                } else {
+                    rootBoard[index] = toByte(mark);
+                    markCount++;
+                }
+            }
+        }
+
+        this.rootEmptyCount = count;
+        this.rootMarks = markCount;
+        this.seed = seed == 0L ? 0x9E3779B97F4A7C15L : seed;
+
+        reset();
+    }
+
+    /**
+     * Restores the root position.
+     */
+    void reset() {
+        System.arraycopy(rootBoard, 0, board, 0, board.length);
+        System.arraycopy(rootEmptyCells, 0, emptyCells, 0, rootEmptyCount);
+        System.arraycopy(rootEmptyPositions,
+                         0,
+                         emptyPositions,
+                         0,
+                         emptyPositions.length);
+        emptyCount = rootEmptyCount;
+        marks = rootMarks;
+    }
+
+    int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Marks the empty cell {@code cell} with {@code player}.
+     *
+     * @param cell   the packed index of the cell.
+     * @param player the player to move.
+     * @return {@code true} if the move wins.
+     */
+    boolean play(int cell, Mark player) {
+        int index = index(cell % width, cell / width);
+        byte mark = toByte(player);
+
+        removeEmptyCell(index);
+        board[index] = mark;
+        marks++;
+        return isWinningMove(index, mark);
+    }
+
+    /**
+     * Plays random moves, starting with {@code player}, until the game is
+     * over.
+     *
+     * @param player the player to move.
+     * @return the winner or {@code null} for a tie.
+     */
+    Mark playout(Mark player) {
+        byte mark = toByte(player);
+
+        while (emptyCount > 0) {
+            int position = nextInt(emptyCount);
+            int index = emptyCells[position];
+
+            // Remove the cell by moving the last empty cell in its place.
+            int last = emptyCells[--emptyCount];
+            emptyCells[position] = last;
+            emptyPositions[last] = position;
+
+            board[index] = mark;
+            marks++;
+
+            if (isWinningMove(index, mark)) {
+                return mark == X ? Mark.X : Mark.O;
+            }
+
+            mark = (byte) (X + O - mark);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the empty cells within {@code radius} of a mark. If there are no
+     * marks, returns the center cell; if no empty cell is near a mark, returns
+     * all the empty cells.
+     *
+     * @param radius the Chebyshev radius.
+     * @return the packed indices of the candidate cells.
+     */
+    int[] getCandidateMoves(int radius) {
+        if (marks == 0) {
+            return new int[]{ height / 2 * width + width / 2 };
+        }
+
+        int[] candidates = new int[emptyCount];
+        int size = 0;
+
+        stamp++;
+
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                byte mark = board[index(x, y)];
+
+                if (mark != X && mark != O) {
+                    continue;
+                }
+
+                int minY = Math.max(0, y - radius);
+                int maxY = Math.min(height - 1, y + radius);
+                int minX = Math.max(0, x - radius);
+                int maxX = Math.min(width - 1, x + radius);
+
+                for (int ny = minY; ny <= maxY; ++ny) {
+                    for (int nx = minX; nx <= maxX; ++nx) {
+                        int index = index(nx, ny);
+
+                        if (board[index] == EMPTY && stamps[index] != stamp) {
+                            stamps[index] = stamp;
+                            candidates[size++] = ny * width + nx;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (size == 0) {
+            for (int i = 0; i < emptyCount; ++i) {
+                candidates[size++] = toCell(emptyCells[i]);
+            }
+        }
+
+        return size == candidates.length ?
+               candidates :
+               Arrays.copyOf(candidates, size);
+    }
+
+    private boolean isWinningMove(int index, byte mark) {
+        for (int direction : directions) {
+            int length = 1;
+            int i = index + direction;
+
+            while (board[i] == mark) {
+                length++;
+                i += direction;
+            }
+
+            i = index - direction;
+
+            while (board[i] == mark) {
+                length++;
+                i -= direction;
+            }
+
+            if (length >= winningLength) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void removeEmptyCell(int index) {
+        int position = emptyPositions[index];
+        int last = emptyCells[--emptyCount];
+        emptyCells[position] = last;
+        emptyPositions[last] = position;
+    }
+
+    /**
+     * Returns a random integer from {@code [0, bound)}.
+     */
+    private int nextInt(int bound) {
+        // xorshift64*, reduced to the range by a multiplication.
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        long random = (seed * 0x2545F4914F6CDD1DL) >>> 32;
+        return (int) ((random * bound) >>> 32);
+    }
+
+    private int index(int x, int y) {
+        return (y + 1) * stride + x + 1;
+    }
+
+    private int toCell(int index) {
+        return (index / stride - 1) * width + index % stride - 1;
+    }
+
+    private static byte toByte(Mark mark) {
+        return mark == Mark.X ? X : O;
+    }
+}
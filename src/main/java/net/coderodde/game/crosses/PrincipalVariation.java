@@ -0,0 +1,93 @@
+package net.coderodde.game.crosses;
+
+import java.util.Arrays;
+
+/**
+ * This class holds one line of a multi-PV search: a root move, its exact
+ * score and the moves the search expects to follow it. The moves are packed
+ * cell indices, {@code y * width + x}, starting with the root move.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class PrincipalVariation {
+
+    private final TicTacToeGrid state;
+    private final int[] moves;
+    private final int   score;
+
+    public PrincipalVariation(TicTacToeGrid state, int[] moves, int score) {
+        this.state = state;
+        this.moves = moves.clone();
+        this.score = score;
+    }
+
+    /**
+     * Returns the position after the root move.
+     *
+     * @return the next state.
+     */
+    public TicTacToeGrid getState() {
+        return state;
+    }
+
+    public int getX() {
+        return moves[0] % state.getWidth();
+    }
+
+    public int getY() {
+        return moves[0] / state.getWidth();
+    }
+
+    /**
+     * Returns the score of the root move. Positive scores favor <tt>X</tt>.
+     *
+     * @return the score.
+     * @see Score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of moves of this line, the root move included.
+     *
+     * @return the length of the line.
+     */
+    public int getLength() {
+        return moves.length;
+    }
+
+    /**
+     * Returns the packed cell of the {@code index}th move of this line.
+     *
+     * @param index the index of the move, zero for the root move.
+     * @return the packed cell.
+     */
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    public int[] getMoves() {
+        return Arrays.copyOf(moves, moves.length);
+    }
+
+    /**
+     * Returns the moves of this line as space-separated <tt>x,y</tt> pairs.
+     */
+    @Override
+    public String toString() {
+        int width = state.getWidth();
+        StringBuilder sb = new StringBuilder(6 * moves.length);
+
+        for (int move : moves) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+
+            sb.append(move % width).append(',').append(move / width);
+        }
+
+        return sb.toString();
+    }
+}
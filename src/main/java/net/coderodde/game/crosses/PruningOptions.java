@@ -0,0 +1,109 @@
+package net.coderodde.game.crosses;
+
+/**
+ * This class holds the switches of the selective search features of
+ * {@link AlphaBetaSearch}:
+ * <ul>
+ * <li><b>Late move reductions.</b> The moves ordered late at a node deep enough
+ * are first searched one ply shallower with a null window. Only if such a move
+ * turns out better than the best move so far is it searched again to the full
+ * depth with the full window. The moves making a threat to win are never
+ * reduced.</li>
+ * <li><b>Futility pruning.</b> A node one ply above the leaves is not expanded
+ * if its static value is so far below the window that no single move could
+ * bring it back, unless the player to move can win at once or, with the
+ * forcing-move extension on, make a threat to win.</li>
+ * <li><b>Forcing-move extension.</b> Instead of returning the static value of
+ * a leaf right away, the search goes on along the forced moves: a player who
+ * can win at once does, and a player facing a single threat blocks it. A
+ * player facing two threats loses. The static value is returned once the
+ * moves are quiet or the extension has gone on for a number of plies.</li>
+ * </ul>
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class PruningOptions {
+
+    /**
+     * The name of the system property switching the late move reductions.
+     */
+    public static final String LATE_MOVE_REDUCTIONS_PROPERTY_NAME =
+            "crosses.lmr";
+
+    /**
+     * The name of the system property switching the futility pruning.
+     */
+    public static final String FUTILITY_PRUNING_PROPERTY_NAME =
+            "crosses.futility";
+
+    /**
+     * The name of the system property switching the forcing-move extension.
+     */
+    public static final String FORCING_EXTENSION_PROPERTY_NAME =
+            "crosses.forcingExtension";
+
+    /**
+     * Searches every move to the full depth.
+     */
+    public static final PruningOptions NONE =
+            new PruningOptions(false, false, false);
+
+    /**
+     * Uses all the selective search features.
+     */
+    public static final PruningOptions ALL =
+            new PruningOptions(true, true, true);
+
+    private final boolean lateMoveReductions;
+    private final boolean futilityPruning;
+    private final boolean forcingExtension;
+
+    public PruningOptions(boolean lateMoveReductions,
+                          boolean futilityPruning,
+                          boolean forcingExtension) {
+        this.lateMoveReductions = lateMoveReductions;
+        this.futilityPruning = futilityPruning;
+        this.forcingExtension = forcingExtension;
+    }
+
+    /**
+     * Returns the options specified by the system properties
+     * {@value #LATE_MOVE_REDUCTIONS_PROPERTY_NAME},
+     * {@value #FUTILITY_PRUNING_PROPERTY_NAME} and
+     * {@value #FORCING_EXTENSION_PROPERTY_NAME}. A feature is on unless its
+     * property is {@code false}.
+     *
+     * @return the options.
+     */
+    public static PruningOptions fromSystemProperties() {
+        return new PruningOptions(
+                isEnabled(LATE_MOVE_REDUCTIONS_PROPERTY_NAME),
+                isEnabled(FUTILITY_PRUNING_PROPERTY_NAME),
+                isEnabled(FORCING_EXTENSION_PROPERTY_NAME));
+    }
+
+    public boolean isLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public boolean isFutilityPruning() {
+        return futilityPruning;
+    }
+
+    public boolean isForcingExtension() {
+        return forcingExtension;
+    }
+
+    @Override
+    public String toString() {
+        return "[lmr = " + lateMoveReductions +
+               ", futility = " + futilityPruning +
+               ", forcing extension = " + forcingExtension + "]";
+    }
+
+    private static boolean isEnabled(String propertyName) {
+        String value = System.getProperty(propertyName);
+        return value == null || !value.trim().equalsIgnoreCase("false");
+    }
+}
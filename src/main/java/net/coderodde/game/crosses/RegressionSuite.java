@@ -0,0 +1,473 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class guards the speed of the alpha-beta engine against regressions.
+ * It searches the positions of a checked-in corpus and compares the outcome
+ * with the baselines recorded in the corpus: the best move, the number of
+ * visited nodes and the cost in time. The node counts do not depend on the
+ * machine, so a node count drifting beyond its tolerance or a changed best
+ * move means the search itself has changed.
+ * <p>
+ * Wall-clock times recorded on one machine say nothing about another, so the
+ * time of a position is recorded as its cost: the number of iterations, in
+ * thousands, of a fixed calibration loop the same JVM runs in the same time.
+ * The cost is compared as the throughput in nodes per cost unit over the
+ * whole corpus, which is far less noisy than the costs of the single
+ * positions, and fails only if it drops beyond its own, looser, tolerance.
+ * <p>
+ * Each position of the corpus is a header line followed by the rows of the
+ * board, as understood by {@link TicTacToeGrid#parse(List, int)}:
+ * <pre>
+ * = k=4 depth=3 best=4,3 nodes=18523 cost=412
+ * .........
+ * ...XO....
+ * ...
+ * </pre>
+ * The lines starting with <tt>#</tt> are comments. With {@code -u} the suite
+ * records the outcome of the current engine as the new baselines instead of
+ * checking them.
+ * <p>
+ * The searches are single-threaded with all the selective features of
+ * {@link PruningOptions} on and with a transposition table of a fixed size,
+ * cleared before each position, so that the node counts are reproducible. The
+ * corpus is searched once to warm up the JIT compiler before the measured
+ * rounds, and the fastest round of each position counts. The calibration
+ * loop runs before and after the rounds, and its fastest run counts.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class RegressionSuite {
+
+    private static final String USAGE =
+            "Usage: RegressionSuite [-n NODE_TOLERANCE] " +
+            "[-t THROUGHPUT_TOLERANCE] [-r ROUNDS] [-u] CORPUS";
+
+    private static final double DEFAULT_NODE_TOLERANCE = 0.05;
+    private static final double DEFAULT_THROUGHPUT_TOLERANCE = 0.5;
+    private static final int DEFAULT_ROUNDS = 3;
+
+    /**
+     * The number of slots of the transposition table.
+     */
+    private static final int TABLE_CAPACITY = 1 << 16;
+
+    private static final String HEADER_PREFIX = "=";
+
+    /**
+     * The number of slots of the table of the calibration loop. Chosen to
+     * fit in the caches of any machine, so that the loop measures the speed
+     * of the processor and not of the memory.
+     */
+    private static final int CALIBRATION_TABLE_SIZE = 1 << 12;
+
+    /**
+     * The number of iterations of one run of the calibration loop.
+     */
+    private static final int CALIBRATION_ITERATIONS = 50000000;
+
+    private static final int CALIBRATION_RUNS = 5;
+
+    /**
+     * Keeps the result of the calibration loop alive so that the JIT compiler
+     * cannot remove the loop.
+     */
+    private static volatile int calibrationSink;
+
+    public static void main(String[] args) throws IOException {
+        double nodeTolerance = DEFAULT_NODE_TOLERANCE;
+        double throughputTolerance = DEFAULT_THROUGHPUT_TOLERANCE;
+        int rounds = DEFAULT_ROUNDS;
+        boolean update = false;
+        String corpusFileName = null;
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "-n":
+                        nodeTolerance = Double.parseDouble(args[++i]);
+                        break;
+
+                    case "-t":
+                        throughputTolerance = Double.parseDouble(args[++i]);
+                        break;
+
+                    case "-r":
+                        rounds = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-u":
+                        update = true;
+                        break;
+
+                    default:
+                        if (args[i].startsWith("-") || corpusFileName != null) {
+                            throw new IllegalArgumentException(args[i]);
+                        }
+
+                        corpusFileName = args[i];
+                }
+            }
+
+            if (corpusFileName == null || rounds < 1) {
+                throw new IllegalArgumentException();
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        Path corpusFile = Paths.get(corpusFileName);
+        List<String> comments = new ArrayList<>();
+        List<Entry> corpus = readCorpus(corpusFile, comments);
+        TranspositionTable transpositionTable =
+                new TranspositionTable(TABLE_CAPACITY);
+
+        System.out.println("Warming up on " + corpus.size() + " positions.");
+
+        for (Entry entry : corpus) {
+            entry.run(transpositionTable);
+        }
+
+        for (Entry entry : corpus) {
+            entry.nanos = Long.MAX_VALUE;
+        }
+
+        double iterationsPerNano = calibrate();
+
+        for (int round = 0; round < rounds; ++round) {
+            for (Entry entry : corpus) {
+                entry.run(transpositionTable);
+            }
+        }
+
+        iterationsPerNano = Math.max(iterationsPerNano, calibrate());
+
+        for (Entry entry : corpus) {
+            entry.cost = Math.max(1L, Math.round(entry.nanos * 
+                                                 iterationsPerNano / 1000));
+        }
+
+        if (update) {
+            for (Entry entry : corpus) {
+                entry.recordBaseline();
+            }
+
+            writeCorpus(corpusFile, comments, corpus);
+            System.out.println("Recorded the baselines of " + corpus.size() +
+                               " positions in " + corpusFile + ".");
+            return;
+        }
+
+        int failures = 0;
+        long nodes = 0;
+        long cost = 0;
+        long baselineNodes = 0;
+        long baselineCost = 0;
+
+        for (int i = 0; i < corpus.size(); ++i) {
+            Entry entry = corpus.get(i);
+            String verdict = entry.check(nodeTolerance);
+
+            System.out.println(String.format(
+                    "%3d  best %-7s  nodes %9d (%+6.1f%%)  " +
+                    "%8.1f ms  cost %8d (%+6.1f%%)%s",
+                    i,
+                    entry.best,
+                    entry.nodes,
+                    percentChange(entry.nodes, entry.baselineNodes),
+                    entry.nanos / 1e6,
+                    entry.cost,
+                    percentChange(entry.cost, entry.baselineCost),
+                    verdict == null ? "" : "  FAILED: " + verdict));
+
+            if (verdict != null) {
+                failures++;
+            }
+
+            nodes += entry.nodes;
+            cost += entry.cost;
+            baselineNodes += entry.baselineNodes;
+            baselineCost += entry.baselineCost;
+        }
+
+        // In nodes per million iterations of the calibration loop.
+        double throughput = 1000.0 * nodes / cost;
+        double baselineThroughput = baselineCost == 0 ? 
+                                    0.0 : 
+                                    1000.0 * baselineNodes / baselineCost;
+
+        System.out.println(String.format(
+                "Throughput: %.1f nodes per million calibration iterations, " +
+                "baseline %.1f (%+.1f%%). Calibration: %.0f iterations per " +
+                "microsecond.",
+                throughput,
+                baselineThroughput,
+                percentChange(throughput, baselineThroughput),
+                1000 * iterationsPerNano));
+
+        if (throughput < (1.0 - throughputTolerance) * baselineThroughput) {
+            System.out.println("FAILED: the throughput dropped by more than " +
+                               Math.round(100 * throughputTolerance) + "%.");
+            failures++;
+        }
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " regressions. If " +
+                               "the change is intended, record new " +
+                               "baselines with -u.");
+            System.exit(1);
+        }
+
+        System.out.println("OK");
+    }
+
+    /**
+     * Runs the calibration loop and returns its speed in iterations per
+     * nanosecond. The loop is a linear congruential generator scattering
+     * additions over a small table, which depends on nothing but the
+     * processor and the JIT compiler.
+     */
+    private static double calibrate() {
+        int[] table = new int[CALIBRATION_TABLE_SIZE];
+        int state = 1;
+        long fastestNanos = Long.MAX_VALUE;
+
+        for (int run = 0; run < CALIBRATION_RUNS; ++run) {
+            long startTime = System.nanoTime();
+
+            for (int i = 0; i < CALIBRATION_ITERATIONS; ++i) {
+                state = state * 1103515245 + 12345;
+                table[(state >>> 20) & (CALIBRATION_TABLE_SIZE - 1)] += state;
+            }
+
+            fastestNanos = Math.min(fastestNanos,
+                                    System.nanoTime() - startTime);
+        }
+
+        calibrationSink = table[state & (CALIBRATION_TABLE_SIZE - 1)];
+        return (double) CALIBRATION_ITERATIONS / fastestNanos;
+    }
+
+    private static double percentChange(double value, double baseline) {
+        return baseline == 0 ? 0.0 : 100.0 * (value - baseline) / baseline;
+    }
+
+    /**
+     * Reads the corpus in {@code file}, adding the comment lines before the
+     * first position to {@code comments}.
+     */
+    private static List<Entry> readCorpus(Path file, List<String> comments)
+            throws IOException {
+        List<Entry> corpus = new ArrayList<>();
+        Entry entry = null;
+        int lineNumber = 0;
+
+        try (BufferedReader reader =
+                Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.startsWith("#")) {
+                    if (corpus.isEmpty() && entry == null) {
+                        comments.add(line);
+                    }
+
+                    continue;
+                }
+
+                if (line.startsWith(HEADER_PREFIX)) {
+                    if (entry != null) {
+                        corpus.add(entry.parseGrid());
+                    }
+
+                    entry = new Entry(line, lineNumber);
+                } else if (!line.trim().isEmpty()) {
+                    if (entry == null) {
+                        throw new IOException("Board without a header at " +
+                                              "line " + lineNumber + ".");
+                    }
+
+                    entry.rows.add(line);
+                }
+            }
+        }
+
+        if (entry != null) {
+            corpus.add(entry.parseGrid());
+        }
+
+        return corpus;
+    }
+
+    private static void writeCorpus(Path file,
+                                    List<String> comments,
+                                    List<Entry> corpus) throws IOException {
+        try (BufferedWriter writer =
+                Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String comment : comments) {
+                writer.write(comment);
+                writer.newLine();
+            }
+
+            for (Entry entry : corpus) {
+                writer.newLine();
+                writer.write(entry.formatHeader());
+                writer.newLine();
+
+                for (String row : entry.rows) {
+                    writer.write(row);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * A position of the corpus along with its baselines and its latest
+     * outcome.
+     */
+    private static final class Entry {
+
+        final Map<String, String> fields = new LinkedHashMap<>();
+        final List<String> rows = new ArrayList<>();
+        final int lineNumber;
+
+        TicTacToeGrid grid;
+        int depth;
+
+        String baselineBest;
+        long   baselineNodes;
+        long   baselineCost;
+
+        String best;
+        long   nodes;
+        long   nanos = Long.MAX_VALUE;
+
+        /**
+         * The fastest time of this position in thousands of iterations of
+         * the calibration loop.
+         */
+        long   cost;
+
+        Entry(String header, int lineNumber) throws IOException {
+            this.lineNumber = lineNumber;
+
+            for (String field : header.substring(HEADER_PREFIX.length())
+                                      .trim()
+                                      .split("\\s+")) {
+                int equals = field.indexOf('=');
+
+                if (equals <= 0) {
+                    throw new IOException("Bad field '" + field + "' at " +
+                                          "line " + lineNumber + ".");
+                }
+
+                fields.put(field.substring(0, equals),
+                           field.substring(equals + 1));
+            }
+        }
+
+        /**
+         * Parses the board and the baselines once all the rows are read.
+         */
+        Entry parseGrid() throws IOException {
+            try {
+                grid = TicTacToeGrid.parse(rows,
+                                           Integer.parseInt(fields.get("k")));
+                depth = Integer.parseInt(fields.get("depth"));
+                baselineBest = fields.get("best");
+                baselineNodes = Long.parseLong(fields.getOrDefault("nodes",
+                                                                   "0"));
+                baselineCost = Long.parseLong(fields.getOrDefault("cost",
+                                                                  "0"));
+            } catch (RuntimeException ex) {
+                throw new IOException("Bad position at line " + lineNumber +
+                                      ": " + ex.getMessage(), ex);
+            }
+
+            if (grid.getWinner() != null || grid.isFull()) {
+                throw new IOException("Finished game at line " + lineNumber +
+                                      ".");
+            }
+
+            return this;
+        }
+
+        /**
+         * Searches the position, keeping the fastest time so far.
+         */
+        void run(TranspositionTable transpositionTable) {
+            transpositionTable.clear();
+
+            AlphaBetaSearch search =
+                    new AlphaBetaSearch(new NeighborhoodMoveGenerator(),
+                                        new HeuristicFunction(),
+                                        transpositionTable,
+                                        PruningOptions.ALL);
+            long startTime = System.nanoTime();
+            SearchResult result =
+                    search.search(grid, grid.getPlayerToMove(), depth);
+
+            nanos = Math.min(nanos, System.nanoTime() - startTime);
+            nodes = result.getNodes();
+            best = result.getBestX() + "," + result.getBestY();
+        }
+
+        /**
+         * Returns the reason this position fails, or {@code null} if it
+         * passes.
+         */
+        String check(double nodeTolerance) {
+            if (baselineBest == null 
+                    || baselineNodes == 0 
+                    || baselineCost == 0) {
+                return "no baseline";
+            }
+
+            if (!best.equals(baselineBest)) {
+                return "best move " + best + " instead of " + baselineBest;
+            }
+
+            if (Math.abs(nodes - baselineNodes) >
+                    nodeTolerance * baselineNodes) {
+                return "node count drifted from " + baselineNodes;
+            }
+
+            return null;
+        }
+
+        void recordBaseline() {
+            fields.put("best", best);
+            fields.put("nodes", Long.toString(nodes));
+            fields.put("cost", Long.toString(cost));
+        }
+
+        String formatHeader() {
+            StringBuilder sb = new StringBuilder(HEADER_PREFIX);
+
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                sb.append(' ')
+                  .append(field.getKey())
+                  .append('=')
+                  .append(field.getValue());
+            }
+
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package net.coderodde.game.crosses;
+
+/**
+ * This class defines the integer scores used by the search. Positive scores
+ * favor the <tt>X</tt> player and negative scores favor the <tt>O</tt> player.
+ * A won game is scored {@code WIN - ply} (or {@code -WIN + ply} when
+ * <tt>O</tt> wins), where {@code ply} is the distance from the search root to
+ * the winning position, so that faster wins score higher than slower ones.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class Score {
+
+    /**
+     * The score of a position in which <tt>X</tt> has already won.
+     */
+    public static final int WIN = 1000000;
+
+    /**
+     * The maximum ply that may be encoded in a win score.
+     */
+    public static final int MAX_PLY = 10000;
+
+    /**
+     * The largest absolute value a static evaluation of a non-terminal
+     * position may have.
+     */
+    public static final int MAX_EVALUATION = WIN - MAX_PLY - 1;
+
+    /**
+     * A bound larger than any score. Used as the initial alpha-beta window.
+     */
+    public static final int INFINITY = WIN + 1;
+
+    private Score() {}
+
+    /**
+     * Returns the score of a win of {@code winner} found {@code ply} plies
+     * away from the search root.
+     *
+     * @param winner the winning player.
+     * @param ply    the distance from the root.
+     * @return the win score.
+     */
+    public static int win(Mark winner, int ply) {
+        return winner.equals(Mark.X) ? WIN - ply : -WIN + ply;
+    }
+
+    /**
+     * Returns {@code true} if {@code score} encodes a won game.
+     *
+     * @param score the score to check.
+     * @return {@code true} if the score is a win score.
+     */
+    public static boolean isWin(int score) {
+        return Math.abs(score) > MAX_EVALUATION;
+    }
+
+    /**
+     * Returns the number of plies from the search root to the win encoded in
+     * {@code score}.
+     *
+     * @param score the win score.
+     * @return the distance to the win.
+     */
+    public static int pliesToWin(int score) {
+        return WIN - Math.abs(score);
+    }
+
+    /**
+     * Converts {@code score}, found {@code ply} plies away from the search
+     * root, into a score relative to the position it was found at. Win scores
+     * are stored in this form in a {@link TranspositionTable} so that they
+     * remain valid when the position is reached at another ply.
+     *
+     * @param score the score relative to the root.
+     * @param ply   the distance of the position from the root.
+     * @return the score relative to the position.
+     */
+    public static int toTableScore(int score, int ply) {
+        if (score > MAX_EVALUATION) {
+            return score + ply;
+        }
+
+        if (score < -MAX_EVALUATION) {
+            return score - ply;
+        }
+
+        return score;
+    }
+
+    /**
+     * Inverts {@link #toTableScore(int, int)}.
+     *
+     * @param score the score relative to the position.
+     * @param ply   the distance of the position from the root.
+     * @return the score relative to the root.
+     */
+    public static int fromTableScore(int score, int ply) {
+        if (score > MAX_EVALUATION) {
+            return score - ply;
+        }
+
+        if (score < -MAX_EVALUATION) {
+            return score + ply;
+        }
+
+        return score;
+    }
+
+    /**
+     * Clamps a static evaluation so that it never collides with a win score.
+     *
+     * @param evaluation the raw evaluation.
+     * @return the clamped evaluation.
+     */
+    public static int clampEvaluation(long evaluation) {
+        return (int) Math.max(-MAX_EVALUATION,
+                              Math.min(MAX_EVALUATION, evaluation));
+    }
+}
@@ -0,0 +1,67 @@
+package net.coderodde.game.crosses;
+
+/**
+ * This class holds the outcome of searching a position: the best move found,
+ * its score, the depth searched and the number of visited nodes.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class SearchResult {
+
+    private final TicTacToeGrid bestState;
+    private final int  bestX;
+    private final int  bestY;
+    private final int  score;
+    private final int  depth;
+    private final long nodes;
+
+    public SearchResult(TicTacToeGrid bestState,
+                        int bestX,
+                        int bestY,
+                        int score,
+                        int depth,
+                        long nodes) {
+        this.bestState = bestState;
+        this.bestX = bestX;
+        this.bestY = bestY;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Returns the position after the best move.
+     *
+     * @return the best next state.
+     */
+    public TicTacToeGrid getBestState() {
+        return bestState;
+    }
+
+    public int getBestX() {
+        return bestX;
+    }
+
+    public int getBestY() {
+        return bestY;
+    }
+
+    /**
+     * Returns the score of the best move. Positive scores favor <tt>X</tt>.
+     *
+     * @return the score.
+     * @see Score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+}
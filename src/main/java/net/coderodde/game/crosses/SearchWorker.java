@@ -0,0 +1,376 @@
+package net.coderodde.game.crosses;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * This class runs a worker of the distributed root search. It listens on a
+ * port of the loopback interface for a {@link DistributedSearch} to connect,
+ * and searches the root moves it is sent on its own threads, all sharing one
+ * transposition table. The protocol is described by
+ * {@link DistributedProtocol}.
+ * <p>
+ * The tasks are queued in the order they arrive and each search thread takes
+ * the first of them. A steal request of the coordinator takes the last ones,
+ * which are the least likely to be started soon, and hands them to an idle
+ * worker.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class SearchWorker {
+
+    private static final String USAGE =
+            "Usage: SearchWorker -p PORT [-t THREADS]";
+
+    private final ServerSocket serverSocket;
+    private final int threads;
+    private final TranspositionTable transpositionTable =
+            TranspositionTable.fromSystemProperties();
+
+    /**
+     * Starts listening on {@code port} of the loopback interface.
+     *
+     * @param port    the port, or zero for any free port.
+     * @param threads the number of search threads.
+     * @throws IOException if the port cannot be bound.
+     */
+    public SearchWorker(int port, int threads) throws IOException {
+        this.serverSocket = new ServerSocket(port,
+                                             0,
+                                             InetAddress.getLoopbackAddress());
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = -1;
+        int threads = EngineExecutors.getSearchThreadCount();
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "-p":
+                        port = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "-t":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+
+            if (port < 0 || threads < 1) {
+                throw new IllegalArgumentException();
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        SearchWorker worker = new SearchWorker(port, threads);
+
+        System.err.println("Search worker listening on port " +
+                           worker.getPort() + " with " + threads +
+                           " threads.");
+        worker.serve();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Serves the coordinators connecting, one at a time, until the server
+     * socket is closed.
+     *
+     * @throws IOException if accepting a connection fails.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setTcpNoDelay(true);
+                new Connection(socket).serve();
+            } catch (IOException ex) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+
+                System.err.println("Lost the coordinator: " + ex);
+            }
+        }
+    }
+
+    /**
+     * Stops serving.
+     *
+     * @throws IOException if closing the server socket fails.
+     */
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    /**
+     * A job of the coordinator: the root position of a search.
+     */
+    private static final class Job {
+
+        final int id;
+        final TicTacToeGrid grid;
+        final Mark player;
+        final int depth;
+        final PruningOptions pruningOptions;
+
+        Job(int id,
+            TicTacToeGrid grid,
+            Mark player,
+            int depth,
+            PruningOptions pruningOptions) {
+            this.id = id;
+            this.grid = grid;
+            this.player = player;
+            this.depth = depth;
+            this.pruningOptions = pruningOptions;
+        }
+    }
+
+    /**
+     * A root move to search.
+     */
+    private static final class Task {
+
+        final Job job;
+        final int index;
+        final int cell;
+
+        Task(Job job, int index, int cell) {
+            this.job = job;
+            this.index = index;
+            this.cell = cell;
+        }
+    }
+
+    /**
+     * The session of one coordinator.
+     */
+    private final class Connection {
+
+        private final DataInputStream  in;
+        private final DataOutputStream out;
+
+        private final LinkedBlockingDeque<Task> tasks =
+                new LinkedBlockingDeque<>();
+
+        /**
+         * The searches running, aborted when the coordinator goes away.
+         */
+        private final Set<AlphaBetaSearch> searches =
+                ConcurrentHashMap.newKeySet();
+
+        /**
+         * Tells the search threads to exit.
+         */
+        private final Task poison = new Task(null, -1, -1);
+
+        private Job job;
+
+        Connection(Socket socket) throws IOException {
+            this.in = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void serve() throws IOException {
+            synchronized (out) {
+                out.writeByte(DistributedProtocol.HELLO);
+                out.writeInt(threads);
+                out.flush();
+            }
+
+            List<Thread> searchThreads = new ArrayList<>(threads);
+
+            for (int i = 0; i < threads; ++i) {
+                Thread thread = new Thread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        runTasks();
+                    }
+                }, "crosses-worker-" + i);
+
+                thread.setDaemon(true);
+                thread.start();
+                searchThreads.add(thread);
+            }
+
+            try {
+                while (true) {
+                    byte type;
+
+                    try {
+                        type = in.readByte();
+                    } catch (EOFException ex) {
+                        return;
+                    }
+
+                    switch (type) {
+                        case DistributedProtocol.JOB:
+                            readJob();
+                            break;
+
+                        case DistributedProtocol.TASK:
+                            readTask();
+                            break;
+
+                        case DistributedProtocol.STEAL:
+                            readSteal();
+                            break;
+
+                        default:
+                            throw new IOException("Unknown message: " + type);
+                    }
+                }
+            } finally {
+                tasks.clear();
+
+                for (AlphaBetaSearch search : searches) {
+                    search.abort();
+                }
+
+                for (int i = 0; i < threads; ++i) {
+                    tasks.add(poison);
+                }
+            }
+        }
+
+        private void readJob() throws IOException {
+            int id = in.readInt();
+            Mark player = DistributedProtocol.readPlayer(in);
+            int depth = in.readShort();
+            PruningOptions pruningOptions =
+                    DistributedProtocol.readPruningOptions(in);
+            TicTacToeGrid grid = DistributedProtocol.readPosition(in);
+
+            // The tasks of an earlier job are no longer wanted.
+            tasks.clear();
+            transpositionTable.newSearch();
+            job = new Job(id, grid, player, depth, pruningOptions);
+        }
+
+        private void readTask() throws IOException {
+            int id = in.readInt();
+            int index = in.readInt();
+            int cell = in.readInt();
+
+            if (job == null || job.id != id) {
+                throw new IOException("Task of an unknown job: " + id);
+            }
+
+            tasks.add(new Task(job, index, cell));
+        }
+
+        private void readSteal() throws IOException {
+            int id = in.readInt();
+            int count = in.readShort();
+            List<Task> stolen = new ArrayList<>(count);
+
+            while (stolen.size() < count) {
+                Task task = tasks.pollLast();
+
+                if (task == null) {
+                    break;
+                }
+
+                stolen.add(task);
+            }
+
+            synchronized (out) {
+                out.writeByte(DistributedProtocol.STOLEN);
+                out.writeInt(id);
+                out.writeShort(stolen.size());
+
+                for (Task task : stolen) {
+                    out.writeInt(task.index);
+                }
+
+                out.flush();
+            }
+        }
+
+        /**
+         * Searches the queued tasks until poisoned.
+         */
+        private void runTasks() {
+            while (true) {
+                Task task;
+
+                try {
+                    task = tasks.takeFirst();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+
+                if (task == poison) {
+                    return;
+                }
+
+                Job job = task.job;
+                AlphaBetaSearch search =
+                        new AlphaBetaSearch(new NeighborhoodMoveGenerator(),
+                                            new HeuristicFunction(),
+                                            transpositionTable,
+                                            job.pruningOptions);
+                searches.add(search);
+
+                int value;
+
+                try {
+                    TicTacToeGrid child = new TicTacToeGrid(job.grid);
+                    child.mark(task.cell % child.getWidth(),
+                               task.cell / child.getWidth(),
+                               job.player);
+                    value = search.alphabeta(child,
+                                             job.depth,
+                                             1,
+                                             -Score.INFINITY,
+                                             Score.INFINITY,
+                                             job.player.opponent());
+                } finally {
+                    searches.remove(search);
+                }
+
+                if (search.isAborted()) {
+                    continue;
+                }
+
+                try {
+                    synchronized (out) {
+                        out.writeByte(DistributedProtocol.RESULT);
+                        out.writeInt(job.id);
+                        out.writeInt(task.index);
+                        out.writeInt(value);
+                        out.writeLong(search.getNodes());
+                        out.flush();
+                    }
+                } catch (IOException ex) {
+                    // The reader notices the lost coordinator, too.
+                }
+            }
+        }
+    }
+}
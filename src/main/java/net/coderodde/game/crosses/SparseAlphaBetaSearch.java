@@ -0,0 +1,211 @@
+package net.coderodde.game.crosses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class implements the depth-limited alpha-beta search over an unbounded
+ * {@link SparseTicTacToeGrid}. The <tt>X</tt> player is the maximizing one.
+ * The moves of a node are the empty cells within a Chebyshev radius of a mark,
+ * as returned by {@link SparseTicTacToeGrid#getCandidateCells(int)}, ordered
+ * by the static values of the positions they lead to. Thus the work per node
+ * depends on the number of marks and not on the area of the field.
+ * <p>
+ * An instance keeps count of the nodes it visits and is therefore meant to be
+ * used by one thread at a time.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class SparseAlphaBetaSearch {
+
+    private final HeuristicFunction heuristicFunction;
+    private final int radius;
+
+    private long nodes;
+
+    public SparseAlphaBetaSearch(HeuristicFunction heuristicFunction) {
+        this(heuristicFunction, NeighborhoodMoveGenerator.DEFAULT_RADIUS);
+    }
+
+    public SparseAlphaBetaSearch(HeuristicFunction heuristicFunction,
+                                 int radius) {
+        if (radius < 1) {
+            throw new IllegalArgumentException(
+                    "The neighborhood radius must be at least 1, was " +
+                    radius + ".");
+        }
+
+        this.heuristicFunction = heuristicFunction;
+        this.radius = radius;
+    }
+
+    /**
+     * Returns the number of nodes visited by this search so far.
+     *
+     * @return the node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Searches for the best move of {@code player} in {@code grid}. The root
+     * moves are searched {@code depth} plies deep each. On an empty grid, the
+     * move is the origin.
+     *
+     * @param grid   the position to search.
+     * @param player the player to move.
+     * @param depth  the search depth below the root moves.
+     * @return the packed cell of the best move. Use
+     *         {@link SparseTicTacToeGrid#unpackX(long)} and
+     *         {@link SparseTicTacToeGrid#unpackY(long)} to decode it.
+     */
+    public long search(SparseTicTacToeGrid grid, Mark player, int depth) {
+        nodes++;
+
+        if (grid.isEmpty()) {
+            return PackedCellMap.pack(0, 0);
+        }
+
+        int alpha = -Score.INFINITY;
+        int beta  =  Score.INFINITY;
+
+        Move bestMove = null;
+        int bestValue = 0;
+
+        for (Move move : generateMoves(grid, player)) {
+            int value = alphabeta(move, depth, 1, alpha, beta, player);
+
+            if (player.equals(Mark.X)) {
+                if (bestMove == null || value > bestValue) {
+                    bestMove = move;
+                    bestValue = value;
+                    alpha = Math.max(alpha, value);
+                }
+            } else if (bestMove == null || value < bestValue) {
+                bestMove = move;
+                bestValue = value;
+                beta = Math.min(beta, value);
+            }
+        }
+
+        return bestMove.cell;
+    }
+
+    /**
+     * Returns the minimax value of the position after {@code move} within the
+     * window {@code [alpha, beta]}.
+     *
+     * @param move   the move leading to the position to search.
+     * @param depth  the remaining depth.
+     * @param ply    the distance of the position from the root.
+     * @param alpha  the lower bound.
+     * @param beta   the upper bound.
+     * @param mover  the player that made {@code move}.
+     * @return the value of the position.
+     */
+    private int alphabeta(Move move,
+                          int depth,
+                          int ply,
+                          int alpha,
+                          int beta,
+                          Mark mover) {
+        nodes++;
+
+        SparseTicTacToeGrid node = move.grid;
+        Mark winner = node.getWinner();
+
+        if (winner != null) {
+            return Score.win(winner, ply);
+        }
+
+        if (depth == 0) {
+            // Already computed for ordering the moves.
+            return move.value;
+        }
+
+        Mark player = mover.opponent();
+        List<Move> moves = generateMoves(node, player);
+
+        if (player.equals(Mark.X)) {
+            int value = -Score.INFINITY;
+
+            for (Move child : moves) {
+                value = Math.max(value, alphabeta(child,
+                                                  depth - 1,
+                                                  ply + 1,
+                                                  alpha,
+                                                  beta,
+                                                  player));
+                alpha = Math.max(alpha, value);
+
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+
+            return value;
+        } else {
+            int value = Score.INFINITY;
+
+            for (Move child : moves) {
+                value = Math.min(value, alphabeta(child,
+                                                  depth - 1,
+                                                  ply + 1,
+                                                  alpha,
+                                                  beta,
+                                                  player));
+                beta = Math.min(beta, value);
+
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+
+            return value;
+        }
+    }
+
+    /**
+     * Returns the moves of {@code player} in {@code grid}, the most promising
+     * first.
+     */
+    private List<Move> generateMoves(SparseTicTacToeGrid grid, Mark player) {
+        long[] cells = grid.getCandidateCells(radius);
+        List<Move> moves = new ArrayList<>(cells.length);
+
+        for (long cell : cells) {
+            SparseTicTacToeGrid child = new SparseTicTacToeGrid(grid);
+            child.mark(SparseTicTacToeGrid.unpackX(cell),
+                       SparseTicTacToeGrid.unpackY(cell),
+                       player);
+            moves.add(new Move(cell, child, heuristicFunction.evaluate(child)));
+        }
+
+        Comparator<Move> comparator = Comparator.comparingInt(m -> m.value);
+        Collections.sort(moves, player.equals(Mark.X) ?
+                                comparator.reversed() :
+                                comparator);
+        return moves;
+    }
+
+    /**
+     * A move along with the position it leads to and the static value of
+     * that position.
+     */
+    private static final class Move {
+
+        final long cell;
+        final SparseTicTacToeGrid grid;
+        final int value;
+
+        Move(long cell, SparseTicTacToeGrid grid, int value) {
+            this.cell = cell;
+            this.grid = grid;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package net.coderodde.game.crosses;
+
+import java.util.Objects;
+
+/**
+ * This class implements an unbounded Tic Tac Toe field, such as the one of
+ * freestyle gomoku. Only the occupied cells are stored, keyed by their packed
+ * coordinates, so the memory use is proportional to the number of marks and
+ * not to the area of the field. The winner is detected incrementally by
+ * checking only the lines passing through each new mark.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public class SparseTicTacToeGrid {
+
+    /**
+     * The four line directions: horizontal, vertical and the two diagonals.
+     */
+    static final int[][] DIRECTIONS = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+
+    /**
+     * The occupied cells.
+     */
+    private final PackedCellMap cells;
+
+    private final int winningLength;
+
+    private Mark winner;
+
+    private int minX = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+
+    public SparseTicTacToeGrid(int winningLength) {
+        if (winningLength < 1) {
+            throw new IllegalArgumentException(
+                    "The winning length must be positive, was " +
+                    winningLength + ".");
+        }
+
+        this.cells = new PackedCellMap();
+        this.winningLength = winningLength;
+    }
+
+    public SparseTicTacToeGrid(SparseTicTacToeGrid grid) {
+        this.cells = new PackedCellMap(grid.cells);
+        this.winningLength = grid.winningLength;
+        this.winner = grid.winner;
+        this.minX = grid.minX;
+        this.maxX = grid.maxX;
+        this.minY = grid.minY;
+        this.maxY = grid.maxY;
+    }
+
+    public int getWinningLength() {
+        return winningLength;
+    }
+
+    /**
+     * Returns the number of marks on this grid.
+     *
+     * @return the number of marks.
+     */
+    public int getNumberOfMarks() {
+        return cells.size();
+    }
+
+    public boolean isEmpty() {
+        return cells.size() == 0;
+    }
+
+    public int getMinX() {
+        checkNotEmpty();
+        return minX;
+    }
+
+    public int getMaxX() {
+        checkNotEmpty();
+        return maxX;
+    }
+
+    public int getMinY() {
+        checkNotEmpty();
+        return minY;
+    }
+
+    public int getMaxY() {
+        checkNotEmpty();
+        return maxY;
+    }
+
+    public void mark(int x, int y, Mark player) {
+        Objects.requireNonNull(player, "The input player is null.");
+
+        if (cells.get(x, y) != null) {
+            throw new IllegalArgumentException(
+                    "The cell at (x = " + x + ", y = " + y + ") is occupied.");
+        }
+
+        cells.put(x, y, player);
+
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+
+        if (winner == null && completesLine(x, y, player)) {
+            winner = player;
+        }
+    }
+
+    public Mark read(int x, int y) {
+        return cells.get(x, y);
+    }
+
+    /**
+     * Returns the player that has completed a line of at least
+     * {@code winningLength} marks, or {@code null} if there is none. Runs in
+     * constant time as the winner is tracked by {@link #mark}.
+     *
+     * @return the winner or {@code null}.
+     */
+    public Mark getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the packed coordinates of all empty cells within the Chebyshev
+     * {@code radius} of a mark. Use {@link #unpackX(long)} and
+     * {@link #unpackY(long)} to decode them.
+     *
+     * @param radius the neighborhood radius.
+     * @return the packed candidate cells.
+     */
+    public long[] getCandidateCells(int radius) {
+        PackedCellMap candidates = new PackedCellMap(
+                cells.size() * (2 * radius + 1) * (2 * radius + 1));
+
+        for (int slot = 0; slot < cells.capacity(); ++slot) {
+            if (!cells.isUsed(slot)) {
+                continue;
+            }
+
+            long key = cells.keyAt(slot);
+            int x = PackedCellMap.unpackX(key);
+            int y = PackedCellMap.unpackY(key);
+
+            for (int dy = -radius; dy <= radius; ++dy) {
+                for (int dx = -radius; dx <= radius; ++dx) {
+                    if (cells.get(x + dx, y + dy) == null) {
+                        candidates.put(x + dx, y + dy, Mark.X);
+                    }
+                }
+            }
+        }
+
+        long[] result = new long[candidates.size()];
+        int size = 0;
+
+        for (int slot = 0; slot < candidates.capacity(); ++slot) {
+            if (candidates.isUsed(slot)) {
+                result[size++] = candidates.keyAt(slot);
+            }
+        }
+
+        return result;
+    }
+
+    public static int unpackX(long packedCell) {
+        return PackedCellMap.unpackX(packedCell);
+    }
+
+    public static int unpackY(long packedCell) {
+        return PackedCellMap.unpackY(packedCell);
+    }
+
+    /**
+     * Returns the underlying cell map. Used by {@link HeuristicFunction} for
+     * iterating over the occupied cells only.
+     */
+    PackedCellMap getCells() {
+        return cells;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "";
+        }
+
+        int width  = maxX - minX + 1;
+        int height = maxY - minY + 1;
+
+        StringBuilder sb = new StringBuilder(2 * (width + 1) * height);
+
+        for (int y = minY; y <= maxY; ++y) {
+            for (int x = minX; x <= maxX; ++x) {
+                Mark mark = cells.get(x, y);
+
+                if (mark == null) {
+                    sb.append('.');
+                } else if (mark.equals(Mark.X)) {
+                    sb.append('X');
+                } else {
+                    sb.append('O');
+                }
+
+                sb.append(' ');
+            }
+
+            sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    private boolean completesLine(int x, int y, Mark player) {
+        for (int[] direction : DIRECTIONS) {
+            int length = 1
+                    + countRun(x, y,  direction[0],  direction[1], player)
+                    + countRun(x, y, -direction[0], -direction[1], player);
+
+            if (length >= winningLength) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int countRun(int x, int y, int dx, int dy, Mark player) {
+        int run = 0;
+
+        while (run < winningLength
+                && player.equals(cells.get(x + (run + 1) * dx,
+                                           y + (run + 1) * dy))) {
+            run++;
+        }
+
+        return run;
+    }
+
+    private void checkNotEmpty() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The grid has no marks.");
+        }
+    }
+}
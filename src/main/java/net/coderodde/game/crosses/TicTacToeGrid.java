@@ -1,5 +1,7 @@
 package net.coderodde.game.crosses;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -13,12 +15,12 @@ public class TicTacToeGrid {
     /**
      * The minimum allowed number of rows in the grid.
      */
-    private static final int MINIMUM_ROWS = 3;
+    static final int MINIMUM_ROWS = 3;
 
     /**
      * The minimum allowed number of columns in the grid.
      */
-    private static final int MINIMUM_COLUMNS = 3;
+    static final int MINIMUM_COLUMNS = 3;
 
     /**
      * The actual grid holding the cells.
@@ -27,6 +29,18 @@ public class TicTacToeGrid {
 
     private final int winningLength;
 
+    /**
+     * The incrementally maintained candidate cells of this grid, or 
+     * {@code null} if no {@link NeighborhoodMoveGenerator} has asked for them
+     * yet.
+     */
+    private CandidateMask candidateMask;
+
+    /**
+     * The Zobrist hash of the marks of this grid, maintained by {@link #mark}.
+     */
+    private long hashKey;
+
     public TicTacToeGrid(int rows, int columns, int winningLength) {
         checkNumberOfRows(rows);
         checkNumberOfColumns(columns);
@@ -38,12 +52,17 @@ public class TicTacToeGrid {
     public TicTacToeGrid(TicTacToeGrid grid) {
         this.grid = new Mark[grid.getHeight()][grid.getWidth()];
         this.winningLength = grid.winningLength;
+        this.hashKey = grid.hashKey;
 
         for (int y = 0; y < grid.getHeight(); ++y) {
             for (int x = 0; x < grid.getWidth(); ++x) {
                 this.grid[y][x] = grid.read(x, y);
             }
         }
+
+        if (grid.candidateMask != null) {
+            this.candidateMask = new CandidateMask(grid.candidateMask);
+        }
     }
 
     public boolean isFull() {
@@ -58,6 +77,25 @@ public class TicTacToeGrid {
         return true;
     }
 
+    /**
+     * Returns the number of empty cells.
+     *
+     * @return the number of empty cells.
+     */
+    public int getEmptyCount() {
+        int count = 0;
+
+        for (Mark[] row : grid) {
+            for (Mark mark : row) {
+                if (mark == null) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
     public int getWinningLength() {
         return winningLength;
     }
@@ -81,6 +119,11 @@ public class TicTacToeGrid {
         }
 
         grid[y][x] = player;
+        hashKey ^= zobristKey(y * getWidth() + x, player);
+
+        if (candidateMask != null) {
+            candidateMask.add(x, y);
+        }
     }
 
     public Mark read(int x, int y) {
@@ -196,6 +239,310 @@ public class TicTacToeGrid {
                 this.grid[y][x] = other.grid[y][x];
             }
         }
+
+        this.hashKey = other.hashKey;
+        this.candidateMask = other.candidateMask == null ? 
+                             null : 
+                             new CandidateMask(other.candidateMask);
+    }
+
+    /**
+     * Returns the Zobrist hash of the marks of this grid. Equal grids have 
+     * equal hashes.
+     * 
+     * @return the hash key.
+     */
+    public long getHashKey() {
+        return hashKey;
+    }
+
+    /**
+     * Returns the Zobrist key of {@code player} occupying the cell with the 
+     * packed index {@code cell}. The keys are derived from the cell index 
+     * rather than drawn from a table, so that grids of any size share them 
+     * and the hashes are the same from run to run.
+     * 
+     * @param cell   the packed cell index.
+     * @param player the player occupying the cell.
+     * @return the key.
+     */
+    static long zobristKey(int cell, Mark player) {
+        long z = 2L * cell + (player == Mark.X ? 1 : 2);
+
+        // The finalizer of SplitMix64.
+        z *= 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the packed index {@code y * width + x} of the first cell that is
+     * empty in {@code previous} but marked in this grid, or {@code -1} if 
+     * there is none. Used for recovering the move leading from a grid to one
+     * of the next states produced by a {@link MoveGenerator}.
+     * 
+     * @param previous the grid before the move.
+     * @return the packed index of the new mark or {@code -1}.
+     */
+    int getAddedCell(TicTacToeGrid previous) {
+        for (int y = 0; y < getHeight(); ++y) {
+            for (int x = 0; x < getWidth(); ++x) {
+                if (previous.grid[y][x] == null && grid[y][x] != null) {
+                    return y * getWidth() + x;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if marking the empty cell at {@code (x, y)} with
+     * {@code player} would complete a line of the winning length. Only the
+     * four lines through the cell are scanned.
+     *
+     * @param x      the x-coordinate of the cell.
+     * @param y      the y-coordinate of the cell.
+     * @param player the player to mark the cell.
+     * @return {@code true} if the mark would win.
+     */
+    public boolean completesLine(int x, int y, Mark player) {
+        int width = getWidth();
+        int height = getHeight();
+
+        for (int[] direction : SparseTicTacToeGrid.DIRECTIONS) {
+            int length = 1;
+
+            for (int sign = -1; sign <= 1; sign += 2) {
+                int dx = sign * direction[0];
+                int dy = sign * direction[1];
+                int cx = x + dx;
+                int cy = y + dy;
+
+                while (cx >= 0 && cx < width && cy >= 0 && cy < height
+                        && grid[cy][cx] == player) {
+                    length++;
+                    cx += dx;
+                    cy += dy;
+                }
+            }
+
+            if (length >= winningLength) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the packed index {@code y * width + x} of an empty cell whose
+     * mark by {@code player} would win the game, or {@code -1} if there is
+     * none.
+     *
+     * @param player the player to move.
+     * @return the packed index of a winning cell or {@code -1}.
+     */
+    public int findWinningCell(Mark player) {
+        return findWinningCell(player, 0);
+    }
+
+    /**
+     * Returns the least packed index {@code y * width + x} not less than
+     * {@code start} of an empty cell whose mark by {@code player} would win
+     * the game, or {@code -1} if there is none. Only the empty cells next to a
+     * mark of {@code player} are tested.
+     *
+     * @param player the player to move.
+     * @param start  the packed index to start from.
+     * @return the packed index of a winning cell or {@code -1}.
+     */
+    public int findWinningCell(Mark player, int start) {
+        int width = getWidth();
+        int cells = width * getHeight();
+
+        for (int cell = Math.max(0, start); cell < cells; ++cell) {
+            int x = cell % width;
+            int y = cell / width;
+
+            if (grid[y][x] == null
+                    && hasMarkInLine(x, y, player)
+                    && completesLine(x, y, player)) {
+                return cell;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if some segment of the winning length along a line
+     * holds at least {@code minimumMarks} marks of {@code player} and none of
+     * the opponent. With {@code minimumMarks} one less than the winning
+     * length, such a segment is a threat to win on the next move.
+     *
+     * @param player       the player.
+     * @param minimumMarks the least number of marks in the segment.
+     * @return {@code true} if there is such a segment.
+     */
+    public boolean hasOpenSegment(Mark player, int minimumMarks) {
+        int width = getWidth();
+        int height = getHeight();
+
+        for (int[] direction : SparseTicTacToeGrid.DIRECTIONS) {
+            int dx = direction[0];
+            int dy = direction[1];
+
+            for (int y = 0; y < height; ++y) {
+                for (int x = 0; x < width; ++x) {
+                    int endX = x + (winningLength - 1) * dx;
+                    int endY = y + (winningLength - 1) * dy;
+
+                    if (endX < 0 || endX >= width
+                            || endY < 0 || endY >= height) {
+                        continue;
+                    }
+
+                    int marks = 0;
+                    int i = 0;
+
+                    for (; i < winningLength; ++i) {
+                        Mark mark = grid[y + i * dy][x + i * dx];
+
+                        if (mark == player) {
+                            marks++;
+                        } else if (mark != null) {
+                            break;
+                        }
+                    }
+
+                    if (i == winningLength && marks >= minimumMarks) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if a mark of {@code player} is adjacent to
+     * {@code (x, y)}, which is the case for every cell completing a line
+     * unless a single mark wins.
+     */
+    private boolean hasMarkInLine(int x, int y, Mark player) {
+        for (int cy = Math.max(0, y - 1);
+                 cy <= Math.min(getHeight() - 1, y + 1);
+                 ++cy) {
+            for (int cx = Math.max(0, x - 1);
+                     cx <= Math.min(getWidth() - 1, x + 1);
+                     ++cx) {
+                if (grid[cy][cx] == player) {
+                    return true;
+                }
+            }
+        }
+
+        return winningLength <= 1;
+    }
+
+    /**
+     * Returns the mask of empty cells within {@code radius} of a mark. The
+     * mask is built once and then kept up to date by {@link #mark}, and is 
+     * inherited by copies of this grid.
+     * 
+     * @param radius the Chebyshev radius.
+     * @return the candidate mask.
+     */
+    CandidateMask getCandidateMask(int radius) {
+        if (candidateMask == null || candidateMask.getRadius() != radius) {
+            candidateMask = CandidateMask.build(this, radius);
+        }
+
+        return candidateMask;
+    }
+
+    /**
+     * Parses a grid from the layout produced by {@link #toString()}: one line
+     * per row, and one character per cell, which is <tt>X</tt>, <tt>O</tt> or
+     * <tt>.</tt> for an empty cell. Whitespace within the lines is ignored.
+     * 
+     * @param rows          the rows of the grid.
+     * @param winningLength the winning length.
+     * @return the parsed grid.
+     */
+    public static TicTacToeGrid parse(List<String> rows, int winningLength) {
+        List<String> cells = new ArrayList<>(rows.size());
+
+        for (String row : rows) {
+            cells.add(row.replaceAll("\\s", ""));
+        }
+
+        if (cells.isEmpty()) {
+            throw new IllegalArgumentException("No rows to parse.");
+        }
+
+        int width = cells.get(0).length();
+        TicTacToeGrid grid = new TicTacToeGrid(cells.size(), 
+                                               width, 
+                                               winningLength);
+
+        for (int y = 0; y < cells.size(); ++y) {
+            String row = cells.get(y);
+
+            if (row.length() != width) {
+                throw new IllegalArgumentException(
+                        "Row " + y + " has " + row.length() + " cells " + 
+                        "instead of " + width + ".");
+            }
+
+            for (int x = 0; x < width; ++x) {
+                switch (row.charAt(x)) {
+                    case 'X':
+                        grid.mark(x, y, Mark.X);
+                        break;
+
+                    case 'O':
+                        grid.mark(x, y, Mark.O);
+                        break;
+
+                    case '.':
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException(
+                                "Unknown cell '" + row.charAt(x) + "' at " +
+                                "(x = " + x + ", y = " + y + ").");
+                }
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Returns the player to move assuming that the players alternate and 
+     * <tt>X</tt> moves first.
+     * 
+     * @return the player to move.
+     */
+    public Mark getPlayerToMove() {
+        int xs = 0;
+        int os = 0;
+
+        for (Mark[] row : grid) {
+            for (Mark mark : row) {
+                if (mark == Mark.X) {
+                    xs++;
+                } else if (mark == Mark.O) {
+                    os++;
+                }
+            }
+        }
+
+        return xs > os ? Mark.O : Mark.X;
     }
 
     @Override
@@ -6,16 +6,29 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
 import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import javax.swing.BoundedRangeModel;
+import javax.swing.DefaultBoundedRangeModel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 /**
  * This class implements the panel for playing Tic Tac Toe.
@@ -28,6 +41,23 @@ public class TicTacToePanel extends JPanel {
     private static final int  DEFAULT_PADDING      = 10;
     private static final int  DEFAULT_BORDER_WIDTH = 3;
     private static final int  MINIMUM_CELL_LENGTH  = 60;
+
+    /**
+     * The smallest and the largest cell length reachable by zooming.
+     */
+    private static final int  MINIMUM_ZOOM_CELL_LENGTH = 10;
+    private static final int  MAXIMUM_ZOOM_CELL_LENGTH = 200;
+
+    /**
+     * The maximum number of cells per axis the minimum size of this panel 
+     * accommodates. Larger boards are scrolled.
+     */
+    private static final int  MAXIMUM_MINIMUM_CELLS = 8;
+    /**
+     * The opacity of the tint of the heatmap.
+     */
+    private static final float HEATMAP_ALPHA = 0.35f;
+
     private static final Font DEFAULT_FONT = new Font("Times New Roman", 
                                                       Font.BOLD, 
                                                       50);
@@ -35,10 +65,32 @@ public class TicTacToePanel extends JPanel {
     private final MoveGenerator      moveGenerator;
     private final HeuristicFunction  heuristicFunction;
     private final int                maximumDepth;
+    private final EngineType         engineType;
+    private final int                timeBudget;
     private final ConfigurationFrame configurationFrame;
     private final GameFrame          gameFrame;
+    private final ExecutionMode      executionMode;
 
     private TicTacToeGrid currentGrid;
+    private GameRecorder  gameRecorder;
+
+    /**
+     * The transposition table shared by all the AI moves of the game.
+     */
+    private TranspositionTable transpositionTable;
+
+    /**
+     * The Monte Carlo tree search of the game. Keeps its tree between the AI
+     * moves.
+     */
+    private MonteCarloTreeSearch monteCarloTreeSearch;
+
+    /**
+     * The background analysis of the positions of the human player, created
+     * when the hints are first switched on.
+     */
+    private HintEngine hintEngine;
+    private HintMode   hintMode = HintMode.OFF;
     private int           padding;
     private int           borderWidth;
     private Color         backgroundColor;
@@ -58,6 +110,66 @@ public class TicTacToePanel extends JPanel {
     private int lastValidCellX = -1;
     private int lastValidCellY = -1;
 
+    /**
+     * The offscreen image holding the background, the borders and the marks.
+     * The highlighted cell is painted on top of it.
+     */
+    private BufferedImage boardImage;
+
+    /**
+     * The marks of the visible cells as they are currently drawn in 
+     * {@code boardImage}. The entry {@code [0][0]} corresponds to the cell
+     * {@code (firstVisibleCellX, firstVisibleCellY)}.
+     */
+    private Mark[][] renderedMarks;
+
+    /**
+     * The horizontal and the vertical scroll positions of the viewport in 
+     * pixels, with the ranges of possible values.
+     */
+    private final DefaultBoundedRangeModel horizontalModel = 
+            new DefaultBoundedRangeModel();
+    private final DefaultBoundedRangeModel verticalModel = 
+            new DefaultBoundedRangeModel();
+
+    /**
+     * Set while the scroll models are updated by
+     * {@link #updateScrollModels()} so that their change events are not
+     * mistaken for user scrolling.
+     */
+    private boolean adjustingModels;
+
+    /**
+     * The horizontal and the vertical scroll offsets of the viewport.
+     */
+    private int viewX;
+    private int viewY;
+
+    /**
+     * The cell length chosen by zooming, or {@code 0} for fitting the board
+     * into the panel.
+     */
+    private int zoomCellLength;
+
+    /**
+     * Maps each cell length to the largest mark font fitting in it.
+     */
+    private final Map<Integer, Font> fontCache = new HashMap<>();
+
+    private int  cellLength;
+    private int  skipX;
+    private int  skipY;
+    private int  firstVisibleCellX;
+    private int  firstVisibleCellY;
+    private int  lastVisibleCellX;
+    private int  lastVisibleCellY;
+    private int  imageCellLength;
+    private int  imageSkipX;
+    private int  imageSkipY;
+    private Font markFont;
+    private int  markDx;
+    private int  markDy;
+
     /**
      * Specifies whether the AI is currently computing its next move. If the
      * lock is on, the user's input will be ignored. The default value is 
@@ -69,13 +181,19 @@ public class TicTacToePanel extends JPanel {
                           MoveGenerator moveGenerator,
                           HeuristicFunction heuristicFunction,
                           int maximumDepth,
+                          EngineType engineType,
+                          int timeBudget,
                           ConfigurationFrame configurationFrame,
-                          GameFrame gameFrame) {
+                          GameFrame gameFrame,
+                          ExecutionMode executionMode) {
         this.moveGenerator = moveGenerator;
         this.heuristicFunction = heuristicFunction;
         this.maximumDepth = maximumDepth;
+        this.engineType = engineType;
+        this.timeBudget = timeBudget;
         this.configurationFrame = configurationFrame;
         this.gameFrame = gameFrame;
+        this.executionMode = executionMode;
 
         this.padding = DEFAULT_PADDING;
         this.borderWidth = DEFAULT_BORDER_WIDTH;
@@ -93,6 +211,17 @@ public class TicTacToePanel extends JPanel {
         CanvasMouseListener mouseListener = new CanvasMouseListener();
         this.addMouseListener(mouseListener);
         this.addMouseMotionListener(mouseListener);
+        this.addMouseWheelListener(mouseListener);
+        ChangeListener scrollListener = new ScrollListener();
+        this.horizontalModel.addChangeListener(scrollListener);
+        this.verticalModel.addChangeListener(scrollListener);
+        this.addComponentListener(new ComponentAdapter() {
+
+            @Override
+            public void componentResized(ComponentEvent e) {
+                updateScrollModels();
+            }
+        });
         CanvasKeyListener keyListener = new CanvasKeyListener();
         this.addKeyListener(keyListener);
         this.setFocusable(true);
@@ -109,22 +238,27 @@ public class TicTacToePanel extends JPanel {
 
     public void setPadding(int padding) {
         this.padding = Math.max(1, padding);
+        this.boardImage = null;
     }
 
     public void setBorderWidth(int borderWidth) {
         this.borderWidth = Math.max(1, borderWidth);
+        this.boardImage = null;
     }
 
     public void setBackgroundColor(Color color) {
         this.backgroundColor = color;
+        this.boardImage = null;
     }
 
     public void setBorderColor(Color color) {
         this.borderColor = color;
+        this.boardImage = null;
     }
 
     public void setForegroundColor(Color color) {
         this.foregroundColor = color;
+        this.boardImage = null;
     }
 
     public void setHighlightOccupiedBorderColor(Color color) {
@@ -153,9 +287,18 @@ public class TicTacToePanel extends JPanel {
 
             this.previousHighlightCellX = this.highlightCellX;
             this.previousHighlightCellY = this.highlightCellY;
+
+            this.gameRecorder = 
+                    new GameRecorder(grid, GameRecorder.getDefaultLogFile());
+            this.transpositionTable = 
+                    TranspositionTable.fromSystemProperties();
+            this.monteCarloTreeSearch = new MonteCarloTreeSearch();
         }
 
         this.currentGrid = grid;
+        this.boardImage = null;
+        updateScrollModels();
+        updateHints();
         repaint();
     }
 
@@ -163,10 +306,127 @@ public class TicTacToePanel extends JPanel {
         return currentGrid;
     }
 
+    /**
+     * Returns the recorder of the moves of the game on this panel.
+     * 
+     * @return the game recorder.
+     */
+    public GameRecorder getGameRecorder() {
+        return gameRecorder;
+    }
+
+    /**
+     * Returns the transposition table of the game on this panel.
+     * 
+     * @return the transposition table.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Returns the Monte Carlo tree search of the game on this panel.
+     * 
+     * @return the Monte Carlo tree search.
+     */
+    public MonteCarloTreeSearch getMonteCarloTreeSearch() {
+        return monteCarloTreeSearch;
+    }
+
+    /**
+     * Returns the model of the horizontal scroll position of the viewport.
+     * 
+     * @return the horizontal scroll model.
+     */
+    public BoundedRangeModel getHorizontalModel() {
+        return horizontalModel;
+    }
+
+    /**
+     * Returns the model of the vertical scroll position of the viewport.
+     * 
+     * @return the vertical scroll model.
+     */
+    public BoundedRangeModel getVerticalModel() {
+        return verticalModel;
+    }
+
+    /**
+     * Sets the cell length of the viewport and keeps the board point under 
+     * the pixel {@code (anchorX, anchorY)} in place. A non-positive length
+     * resets the zoom so that the board fits into the panel again.
+     * 
+     * @param newCellLength the new cell length.
+     * @param anchorX       the X-coordinate of the anchor in viewport space.
+     * @param anchorY       the Y-coordinate of the anchor in viewport space.
+     */
+    public void zoom(int newCellLength, int anchorX, int anchorY) {
+        if (currentGrid == null) {
+            return;
+        }
+
+        computeLayout();
+
+        double boardX = (double)(anchorX - skipX) / (cellLength + borderWidth);
+        double boardY = (double)(anchorY - skipY) / (cellLength + borderWidth);
+
+        if (newCellLength <= 0) {
+            zoomCellLength = 0;
+        } else {
+            zoomCellLength = Math.max(MINIMUM_ZOOM_CELL_LENGTH,
+                                      Math.min(MAXIMUM_ZOOM_CELL_LENGTH, 
+                                               newCellLength));
+        }
+
+        computeLayout();
+
+        viewX = (int)(padding - anchorX + boardX * (cellLength + borderWidth));
+        viewY = (int)(padding - anchorY + boardY * (cellLength + borderWidth));
+        updateScrollModels();
+        repaint();
+    }
+
+    /**
+     * Scrolls the viewport so that the cell {@code (x, y)} is visible.
+     * 
+     * @param x the X-coordinate of the cell.
+     * @param y the Y-coordinate of the cell.
+     */
+    public void scrollToCell(int x, int y) {
+        if (currentGrid == null) {
+            return;
+        }
+
+        computeLayout();
+
+        int unit   = cellLength + borderWidth;
+        int left   = skipX + x * unit;
+        int top    = skipY + y * unit;
+        int right  = left + unit + borderWidth;
+        int bottom = top  + unit + borderWidth;
+
+        if (left < 0) {
+            viewX += left - padding;
+        } else if (right > getWidth()) {
+            viewX += right - getWidth() + padding;
+        }
+
+        if (top < 0) {
+            viewY += top - padding;
+        } else if (bottom > getHeight()) {
+            viewY += bottom - getHeight() + padding;
+        }
+
+        updateScrollModels();
+        repaint();
+    }
+
     @Override
     public Dimension getMinimumSize() {
-        int horizontalCells = currentGrid.getWidth();
-        int verticalCells   = currentGrid.getHeight();
+        int horizontalCells = Math.min(currentGrid.getWidth(), 
+                                       MAXIMUM_MINIMUM_CELLS);
+        int verticalCells   = Math.min(currentGrid.getHeight(),
+                                       MAXIMUM_MINIMUM_CELLS);
 
         return new Dimension(2 * padding + horizontalCells * 
                                 (borderWidth + MINIMUM_CELL_LENGTH) + 
@@ -178,174 +438,576 @@ public class TicTacToePanel extends JPanel {
 
     @Override
     public Dimension getPreferredSize() {
-        return getMinimumSize();
+        Dimension minimumSize = getMinimumSize();
+
+        int width  = 2 * padding + currentGrid.getWidth() * 
+                        (borderWidth + MINIMUM_CELL_LENGTH) + borderWidth;
+        int height = 2 * padding + currentGrid.getHeight() * 
+                        (borderWidth + MINIMUM_CELL_LENGTH) + borderWidth;
+
+        if (!GraphicsEnvironment.isHeadless()) {
+            // Do not ask for more than three quarters of the screen; the rest
+            // of the board is reachable by scrolling.
+            Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+            width  = Math.min(width,  3 * screen.width  / 4);
+            height = Math.min(height, 3 * screen.height / 4);
+        }
+
+        return new Dimension(Math.max(width,  minimumSize.width),
+                             Math.max(height, minimumSize.height));
     }
 
     @Override
     public void update(Graphics g) {
+        if (currentGrid == null) {
+            return;
+        }
+
+        prepareBoardImage();
+        drawChangedMarks(false);
+
+        g.drawImage(boardImage, 0, 0, null);
+
+        HintEngine.Hints hints = getHints();
+
+        if (hints != null && hintMode == HintMode.HEATMAP) {
+            drawHeatmap(g, hints.getScores());
+        }
+
+        drawHighlight(g);
+
+        if (hints != null) {
+            drawHoverScore(g, hints.getScores());
+        }
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        update(g);
+    }
+
+    /**
+     * Draws the marks that changed since the last paint into the offscreen 
+     * image and repaints only their cells. Must be called on the Event 
+     * Dispatch Thread.
+     */
+    public void refreshCells() {
+        updateHints();
+
+        if (boardImage == null) {
+            repaint();
+            return;
+        }
+
+        drawChangedMarks(true);
+    }
+
+    /**
+     * Switches the hints to the next mode: off, the score of the hovered
+     * cell, and the heatmap of all the candidate cells.
+     */
+    public void toggleHints() {
+        hintMode = HintMode.values()[(hintMode.ordinal() + 1) %
+                                     HintMode.values().length];
+        updateHints();
+        repaint();
+    }
+
+    /**
+     * Starts the analysis of the current position if the hints are on and
+     * the human player is to move, and stops it otherwise.
+     */
+    private void updateHints() {
+        if (hintMode == HintMode.OFF
+                || currentGrid.getWinner() != null
+                || currentGrid.isFull()
+                || currentGrid.getPlayerToMove() != Mark.X) {
+            if (hintEngine != null) {
+                hintEngine.stop();
+            }
+
+            return;
+        }
+
+        if (hintEngine == null) {
+            hintEngine = new HintEngine(moveGenerator,
+                                        heuristicFunction,
+                                        new Runnable() {
+
+                @Override
+                public void run() {
+                    hintsChanged();
+                }
+            });
+        }
+
+        hintEngine.analyze(currentGrid, Mark.X);
+    }
+
+    private void hintsChanged() {
+        if (hintMode == HintMode.HEATMAP) {
+            repaint();
+        } else if (hintMode == HintMode.HOVER) {
+            repaintCell(highlightCellX, highlightCellY);
+        }
+    }
+
+    /**
+     * Returns the hints of the current position, or {@code null} if there
+     * are none to show.
+     */
+    private HintEngine.Hints getHints() {
+        if (hintMode == HintMode.OFF || hintEngine == null || lock) {
+            return null;
+        }
+
+        return hintEngine.getHints(currentGrid, Mark.X);
+    }
+
+    /**
+     * Computes the cell length, the offsets of the grid and the range of the
+     * visible cells for the current size, zoom and scroll position of this 
+     * panel, clamping the scroll position to the board. Drops the offscreen
+     * image if it was drawn for another layout. Leaves the scroll models
+     * alone, as this runs while painting, too; see
+     * {@link #updateScrollModels()}.
+     */
+    private void computeLayout() {
         int availableWidth  = getWidth() - 2 * padding;
         int availableHeight = getHeight() - 2 * padding;
 
         int horizontalCells = currentGrid.getWidth();
         int verticalCells   = currentGrid.getHeight();
 
-        int cellWidth  = (availableWidth - (horizontalCells + 1) * borderWidth) 
-                         / horizontalCells;
+        if (zoomCellLength > 0) {
+            cellLength = zoomCellLength;
+        } else {
+            int cellWidth  = (availableWidth - (horizontalCells + 1) * 
+                              borderWidth) / horizontalCells;
 
-        int cellHeight = (availableHeight - (verticalCells + 1) * borderWidth) 
-                         / verticalCells;
+            int cellHeight = (availableHeight - (verticalCells + 1) * 
+                              borderWidth) / verticalCells;
 
-        int cellLength = Math.min(cellWidth, cellHeight);
+            cellLength = Math.max(MINIMUM_CELL_LENGTH, 
+                                  Math.min(cellWidth, cellHeight));
+        }
 
-        g.setColor(backgroundColor);
-        g.fillRect(0, 0, getWidth(), getHeight());
+        int unit = cellLength + borderWidth;
+
+        int occupiedWidth  = horizontalCells * unit + borderWidth;
+        int occupiedHeight = verticalCells   * unit + borderWidth;
+
+        viewX = clampOffset(viewX, occupiedWidth,  getWidth());
+        viewY = clampOffset(viewY, occupiedHeight, getHeight());
+
+        skipX = occupiedWidth + 2 * padding <= getWidth() ?
+                (getWidth() - occupiedWidth) / 2 :
+                padding - viewX;
+
+        skipY = occupiedHeight + 2 * padding <= getHeight() ?
+                (getHeight() - occupiedHeight) / 2 :
+                padding - viewY;
+
+        firstVisibleCellX = Math.max(0, -skipX / unit);
+        firstVisibleCellY = Math.max(0, -skipY / unit);
+        lastVisibleCellX  = Math.min(horizontalCells - 1, 
+                                     (getWidth()  - skipX) / unit);
+        lastVisibleCellY  = Math.min(verticalCells - 1, 
+                                     (getHeight() - skipY) / unit);
+
+        if (boardImage != null
+                && (boardImage.getWidth()  != Math.max(1, getWidth())
+                    || boardImage.getHeight() != Math.max(1, getHeight())
+                    || imageCellLength != cellLength
+                    || imageSkipX != skipX
+                    || imageSkipY != skipY)) {
+            // The marks drawn in the image, and the range of the visible 
+            // cells they were drawn for, no longer match the layout.
+            boardImage = null;
+        }
+    }
 
-        int occupiedWidth = (horizontalCells * (cellLength + borderWidth)) + 
-                             borderWidth;
-        int occupiedHeight = (verticalCells * (cellLength + borderWidth)) +
-                             borderWidth;
+    /**
+     * Lays out this panel and publishes the scroll position to the scroll 
+     * models. Called from the handlers of resizing, zooming and scrolling, 
+     * so that the listeners of the models never run while painting.
+     */
+    private void updateScrollModels() {
+        if (currentGrid == null) {
+            return;
+        }
 
-        int skipX = (getWidth()  - occupiedWidth) / 2;
-        int skipY = (getHeight() - occupiedHeight) / 2;
+        computeLayout();
 
-        g.setColor(borderColor);
+        int unit = cellLength + borderWidth;
 
-        // Draw horizontal borders.
-        for (int y = 0; y <= verticalCells; ++y) {
-            g.fillRect(skipX, 
-                       skipY + y * (borderWidth + cellLength), 
-                       horizontalCells * (borderWidth + cellLength) + borderWidth, 
-                       borderWidth);
-        }
-
-        // Draw vertical borders.
-        for (int x = 0; x <= horizontalCells; ++x) {
-            g.fillRect(skipX + x * (borderWidth + cellLength),
-                       skipY,
-                       borderWidth,
-                       verticalCells * (borderWidth + cellLength) + borderWidth);
-        }
-
-        if (highlightCellX >= 0
-                && highlightCellX < horizontalCells
-                && highlightCellY >= 0
-                && highlightCellY < verticalCells) {
-            boolean cellOccupied = currentGrid.read(highlightCellX,
-                                                    highlightCellY) != null;
-            if (cellOccupied) {
-                g.setColor(this.highlightOccupiedBorderColor);
-            } else {
-                g.setColor(this.highlightFreeBorderColor);
-            }
+        adjustingModels = true;
+
+        try {
+            publishOffset(horizontalModel,
+                          viewX,
+                          currentGrid.getWidth() * unit + borderWidth,
+                          getWidth());
+            publishOffset(verticalModel,
+                          viewY,
+                          currentGrid.getHeight() * unit + borderWidth,
+                          getHeight());
+        } finally {
+            adjustingModels = false;
+        }
+    }
 
-            // Draw the border.
-            g.fillRect(skipX + highlightCellX * (borderWidth + cellLength),
-                       skipY + highlightCellY * (borderWidth + cellLength), 
-                       2 * borderWidth + cellLength,
-                       2 * borderWidth + cellLength);
+    /**
+     * Clamps the scroll offset of one axis to the board.
+     * 
+     * @return the clamped scroll offset.
+     */
+    private int clampOffset(int offset, int occupied, int available) {
+        int maximum = Math.max(occupied + 2 * padding, available);
+        return Math.max(0, Math.min(offset, maximum - available));
+    }
 
-            if (cellOccupied) {
-                g.setColor(this.highlightOccupiedCellColor);
-            } else {
-                g.setColor(this.highlightFreeCellColor);
-            }
+    /**
+     * Publishes the scroll offset of one axis to the scroll model of that
+     * axis.
+     */
+    private void publishOffset(DefaultBoundedRangeModel model,
+                               int offset,
+                               int occupied,
+                               int available) {
+        int maximum = Math.max(occupied + 2 * padding, available);
+        model.setRangeProperties(offset, available, 0, maximum, false);
+    }
 
-            // Draw the cell.
-            g.fillRect(skipX + highlightCellX * (borderWidth + cellLength) + borderWidth,
-                       skipY + highlightCellY * (borderWidth + cellLength) + borderWidth, 
-                       cellLength ,
-                       cellLength);
+    /**
+     * Makes sure that the offscreen image matches the current size of this 
+     * panel and the dimensions of the current grid. If not, redraws the 
+     * background and the borders; the marks are then redrawn by 
+     * {@link #drawChangedMarks(boolean)}.
+     */
+    private void prepareBoardImage() {
+        int width  = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
 
+        computeLayout();
+
+        if (boardImage != null) {
+            // Still matches the layout.
+            return;
         }
 
-        g.setColor(foregroundColor);
-        g.setFont(getFont());
+        boardImage = new BufferedImage(width, 
+                                       height, 
+                                       BufferedImage.TYPE_INT_RGB);
 
-        if (currentGrid == null) {
-            return;
+        imageCellLength = cellLength;
+        imageSkipX = skipX;
+        imageSkipY = skipY;
+
+        renderedMarks = 
+                new Mark[Math.max(0, lastVisibleCellY - firstVisibleCellY + 1)]
+                        [Math.max(0, lastVisibleCellX - firstVisibleCellX + 1)];
+
+        int unit = borderWidth + cellLength;
+
+        Graphics2D g = boardImage.createGraphics();
+
+        g.setColor(backgroundColor);
+        g.fillRect(0, 0, width, height);
+
+        g.setColor(borderColor);
+
+        int left   = skipX + firstVisibleCellX * unit;
+        int top    = skipY + firstVisibleCellY * unit;
+        int right  = skipX + (lastVisibleCellX + 1) * unit + borderWidth;
+        int bottom = skipY + (lastVisibleCellY + 1) * unit + borderWidth;
+
+        // Draw horizontal borders of the visible cells.
+        for (int y = firstVisibleCellY; y <= lastVisibleCellY + 1; ++y) {
+            g.fillRect(left, skipY + y * unit, right - left, borderWidth);
         }
 
-        int verticalSkip = 16;
+        // Draw vertical borders of the visible cells.
+        for (int x = firstVisibleCellX; x <= lastVisibleCellX + 1; ++x) {
+            g.fillRect(skipX + x * unit, top, borderWidth, bottom - top);
+        }
 
-        Font font = prepareFont(cellLength, verticalSkip, g);
+        g.dispose();
 
-        g.setFont(font);
+        int verticalSkip = Math.min(16, cellLength / 3);
 
-        Graphics2D g2 = (Graphics2D) g;
+        markFont = fontCache.get(cellLength);
 
-        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
-                            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (markFont == null) {
+            markFont = prepareFont(cellLength, verticalSkip, boardImage);
+            fontCache.put(cellLength, markFont);
+        }
 
-        FontMetrics fm = g.getFontMetrics(font);
+        FontMetrics fm = getFontMetrics(markFont);
 
         int textHeight = fm.getAscent();
         int textWidth = fm.stringWidth("X");
 
-        int dx = (cellLength - textWidth)  / 2;
-        int dy = (cellLength - textHeight) / 2;
+        markDx = (cellLength - textWidth)  / 2;
+        markDy = (cellLength - textHeight) / 2;
+    }
 
-        // Draw the marks.
-        for (int y = 0; y < currentGrid.getHeight(); ++y) {
-            for (int x = 0; x < currentGrid.getWidth(); ++x) { 
+    /**
+     * Draws into the offscreen image each cell whose mark differs from the 
+     * one drawn previously.
+     * 
+     * @param repaintCells whether to schedule a repaint of each changed cell.
+     */
+    private void drawChangedMarks(boolean repaintCells) {
+        Graphics2D g = null;
+
+        for (int y = firstVisibleCellY; y <= lastVisibleCellY; ++y) {
+            Mark[] renderedRow = renderedMarks[y - firstVisibleCellY];
+
+            for (int x = firstVisibleCellX; x <= lastVisibleCellX; ++x) { 
                 Mark mark = currentGrid.read(x, y);
 
-                if (mark == null) {
+                if (mark == renderedRow[x - firstVisibleCellX]) {
                     continue;
                 }
 
-                g.drawString(mark.equals(Mark.X) ? "X" : "O", 
-                             skipX + dx + borderWidth * (1 + x) + x * cellLength,
-                             skipY - dy - 8 + borderWidth * (1 + y) + (1 + y) * cellLength);
+                if (g == null) {
+                    g = boardImage.createGraphics();
+                }
+
+                g.setColor(backgroundColor);
+                g.fillRect(skipX + x * (borderWidth + cellLength) + borderWidth,
+                           skipY + y * (borderWidth + cellLength) + borderWidth,
+                           cellLength,
+                           cellLength);
+
+                drawMark(g, x, y, mark);
+                renderedRow[x - firstVisibleCellX] = mark;
+
+                if (repaintCells) {
+                    repaintCell(x, y);
+                }
             }
         }
+
+        if (g != null) {
+            g.dispose();
+        }
     }
 
-    private Font prepareFont(int cellLength, int verticalSkip, Graphics g) {
-        Font currentFont = getFont();
+    private void drawMark(Graphics g, int x, int y, Mark mark) {
+        if (mark == null) {
+            return;
+        }
 
-        for (int fontSize = 1; ; ++fontSize) {
-            Font f = new Font(currentFont.getFontName(), Font.BOLD, fontSize);
-            FontMetrics fm = g.getFontMetrics(f);
+        Graphics2D g2 = (Graphics2D) g;
 
-            int height = fm.getAscent();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        g.setColor(foregroundColor);
+        g.setFont(markFont);
+        g.drawString(mark.equals(Mark.X) ? "X" : "O", 
+                     skipX + markDx + borderWidth * (1 + x) + x * cellLength,
+                     skipY - markDy - Math.min(8, cellLength / 6) + 
+                         borderWidth * (1 + y) + (1 + y) * cellLength);
+    }
+
+    private void drawHighlight(Graphics g) {
+        int horizontalCells = currentGrid.getWidth();
+        int verticalCells   = currentGrid.getHeight();
+
+        if (highlightCellX < 0
+                || highlightCellX >= horizontalCells
+                || highlightCellY < 0
+                || highlightCellY >= verticalCells) {
+            return;
+        }
+
+        Mark mark = currentGrid.read(highlightCellX, highlightCellY);
+        boolean cellOccupied = mark != null;
+
+        if (cellOccupied) {
+            g.setColor(this.highlightOccupiedBorderColor);
+        } else {
+            g.setColor(this.highlightFreeBorderColor);
+        }
+
+        // Draw the border.
+        g.fillRect(skipX + highlightCellX * (borderWidth + cellLength),
+                   skipY + highlightCellY * (borderWidth + cellLength), 
+                   2 * borderWidth + cellLength,
+                   2 * borderWidth + cellLength);
+
+        if (cellOccupied) {
+            g.setColor(this.highlightOccupiedCellColor);
+        } else {
+            g.setColor(this.highlightFreeCellColor);
+        }
 
-            if (height >= cellLength - verticalSkip) {
-                return new Font(currentFont.getFontName(), 
-                                Font.BOLD, 
-                                fontSize - 1);
+        // Draw the cell.
+        g.fillRect(skipX + highlightCellX * (borderWidth + cellLength) + borderWidth,
+                   skipY + highlightCellY * (borderWidth + cellLength) + borderWidth, 
+                   cellLength ,
+                   cellLength);
+
+        drawMark(g, highlightCellX, highlightCellY, mark);
+    }
+
+    /**
+     * Tints each visible candidate cell from red for the worst to green for
+     * the best score for the human player. The won and the lost moves get the
+     * extreme colors, while the other scores are spread between the lowest
+     * and the highest of them.
+     */
+    private void drawHeatmap(Graphics g, int[] scores) {
+        int width = currentGrid.getWidth();
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+
+        for (int score : scores) {
+            if (score != HintEngine.Hints.UNKNOWN && !Score.isWin(score)) {
+                lowest = Math.min(lowest, score);
+                highest = Math.max(highest, score);
+            }
+        }
+
+        for (int y = firstVisibleCellY; y <= lastVisibleCellY; ++y) {
+            for (int x = firstVisibleCellX; x <= lastVisibleCellX; ++x) {
+                int score = scores[y * width + x];
+
+                if (score == HintEngine.Hints.UNKNOWN
+                        || currentGrid.read(x, y) != null) {
+                    continue;
+                }
+
+                float goodness;
+
+                if (Score.isWin(score)) {
+                    goodness = score > 0 ? 1.0f : 0.0f;
+                } else if (highest == lowest) {
+                    goodness = 0.5f;
+                } else {
+                    goodness = 0.1f + 0.8f * (score - lowest) /
+                                             (highest - lowest);
+                }
+
+                g.setColor(new Color(1.0f - goodness, goodness, 0.0f,
+                                     HEATMAP_ALPHA));
+                g.fillRect(skipX + x * (borderWidth + cellLength) +
+                                   borderWidth,
+                           skipY + y * (borderWidth + cellLength) +
+                                   borderWidth,
+                           cellLength,
+                           cellLength);
             }
         }
     }
 
-    @Override
-    public void paint(Graphics g) {
-        update(g);
+    /**
+     * Writes the score of the hovered cell into its corner, if it is known.
+     */
+    private void drawHoverScore(Graphics g, int[] scores) {
+        if (highlightCellX < 0
+                || highlightCellX >= currentGrid.getWidth()
+                || highlightCellY < 0
+                || highlightCellY >= currentGrid.getHeight()
+                || currentGrid.read(highlightCellX, highlightCellY) != null) {
+            return;
+        }
+
+        int score = scores[highlightCellY * currentGrid.getWidth() +
+                           highlightCellX];
+
+        if (score == HintEngine.Hints.UNKNOWN) {
+            return;
+        }
+
+        String text;
+
+        if (Score.isWin(score)) {
+            // The moves of the human player up to the end of the game.
+            int moves = (Score.pliesToWin(score) + 1) / 2;
+            text = (score > 0 ? "W" : "L") + moves;
+        } else {
+            text = (score > 0 ? "+" : "") + score;
+        }
+
+        Graphics2D g2 = (Graphics2D) g;
+
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        g.setColor(foregroundColor);
+        g.setFont(getFont().deriveFont(Font.PLAIN,
+                                       Math.max(8, cellLength / 4)));
+        g.drawString(text,
+                     skipX + highlightCellX * (borderWidth + cellLength) +
+                             borderWidth + 2,
+                     skipY + (highlightCellY + 1) * (borderWidth + cellLength)
+                             - 2);
     }
 
-    private Point toCellCoordinates(int x, int y) {
-        Point ret = new Point();
+    /**
+     * Schedules a repaint of the cell {@code (x, y)} together with its 
+     * borders. Does nothing if the cell is not visible.
+     */
+    private void repaintCell(int x, int y) {
+        if (boardImage == null) {
+            repaint();
+            return;
+        }
 
-        int availableWidth  = getWidth() - 2 * padding;
-        int availableHeight = getHeight() - 2 * padding;
+        if (x < firstVisibleCellX || x > lastVisibleCellX
+                || y < firstVisibleCellY || y > lastVisibleCellY) {
+            return;
+        }
 
-        int horizontalCells = currentGrid.getWidth();
-        int verticalCells   = currentGrid.getHeight();
+        repaint(skipX + x * (borderWidth + cellLength),
+                skipY + y * (borderWidth + cellLength),
+                2 * borderWidth + cellLength,
+                2 * borderWidth + cellLength);
+    }
+
+    private Font prepareFont(int cellLength, 
+                             int verticalSkip, 
+                             BufferedImage image) {
+        Font currentFont = getFont();
+        Graphics g = image.getGraphics();
+
+        try {
+            for (int fontSize = 1; ; ++fontSize) {
+                Font f = new Font(currentFont.getFontName(), 
+                                  Font.BOLD, 
+                                  fontSize);
+                FontMetrics fm = g.getFontMetrics(f);
+
+                int height = fm.getAscent();
 
-        int cellWidth  = (availableWidth - (horizontalCells + 1) * borderWidth) 
-                         / horizontalCells;
+                if (height >= cellLength - verticalSkip) {
+                    return new Font(currentFont.getFontName(), 
+                                    Font.BOLD, 
+                                    fontSize - 1);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
 
-        int cellHeight = (availableHeight - (verticalCells + 1) * borderWidth) 
-                         / verticalCells;
+    private Point toCellCoordinates(int x, int y) {
+        Point ret = new Point();
 
-        int cellLength = Math.min(cellWidth, cellHeight);
+        computeLayout();
 
-        int occupiedWidth = (horizontalCells * (cellLength + borderWidth)) + 
-                             borderWidth;
-        int occupiedHeight = (verticalCells * (cellLength + borderWidth)) +
-                             borderWidth;
+        // Convert from viewport space to board space.
+        x -= skipX;
+        y -= skipY;
 
-        x -= (getWidth()  - occupiedWidth)  / 2;
-        y -= (getHeight() - occupiedHeight) / 2;
+        if (x < 0 || y < 0) {
+            ret.x = -1;
+            return ret;
+        }
 
         if (x % (cellLength + borderWidth) < borderWidth
                 || y % (cellLength + borderWidth) < borderWidth) {
@@ -367,8 +1029,9 @@ public class TicTacToePanel extends JPanel {
             try {
                 lock();
                 currentGrid.mark(p.x, p.y, Mark.X);
+                gameRecorder.recordMove(p.x, p.y, Mark.X);
                 
-                repaint();
+                refreshCells();
 
                 Mark winner = currentGrid.getWinner();
                 String message = null;
@@ -383,6 +1046,7 @@ public class TicTacToePanel extends JPanel {
                 }
 
                 if (message != null) {
+                    gameRecorder.finish();
                     JOptionPane.showMessageDialog(
                             gameFrame, 
                             message,
@@ -396,29 +1060,44 @@ public class TicTacToePanel extends JPanel {
                 
                 AIWorker ai = new AIWorker(configurationFrame,
                                            gameFrame,
-                                           gameFrame,
+                                           gameFrame.getProgressListener(),
                                            currentGrid,
                                            this,
                                            moveGenerator,
                                            heuristicFunction,
-                                           maximumDepth);
+                                           maximumDepth,
+                                           engineType,
+                                           timeBudget);
 
-                ai.execute();
+                launch(ai);
             } catch (Exception ex) {
                 
             }
         }
     }
 
+    /**
+     * Starts the AI turn on the executor of the current execution mode.
+     * 
+     * @param ai the AI turn to run.
+     */
+    private void launch(AIWorker ai) {
+        if (executionMode == ExecutionMode.VIRTUAL_THREAD) {
+            EngineExecutors.virtualThreadExecutor().execute(ai);
+        } else {
+            ai.execute();
+        }
+    }
+
     private void tryHighlight(int x, int y) {
         Point p = toCellCoordinates(x, y);
 
         // Check that the mouse is on top of a border.
         if (p.x < 0) {
             if (previousHighlightCellX != p.x) {
+                repaintCell(highlightCellX, highlightCellY);
                 highlightCellX = p.x;
                 previousHighlightCellX = p.x;
-                repaint();
             }
 
             return;
@@ -434,9 +1113,10 @@ public class TicTacToePanel extends JPanel {
 
         if (highlightCellX != previousHighlightCellX 
                 || highlightCellY != previousHighlightCellY) {
+            repaintCell(previousHighlightCellX, previousHighlightCellY);
+            repaintCell(highlightCellX, highlightCellY);
             previousHighlightCellX = highlightCellX;
             previousHighlightCellY = highlightCellY;
-            repaint();
         }
     }
 
@@ -468,7 +1148,9 @@ public class TicTacToePanel extends JPanel {
                     if (cellY > 0) {
                         previousHighlightCellY = lastValidCellY;
                         highlightCellY = --lastValidCellY;
-                        repaint();
+                        repaintCell(highlightCellX, previousHighlightCellY);
+                        repaintCell(highlightCellX, highlightCellY);
+                        scrollToCell(lastValidCellX, lastValidCellY);
                     }
 
                     break;
@@ -479,7 +1161,9 @@ public class TicTacToePanel extends JPanel {
                     if (cellX < currentGrid.getWidth() - 1) {
                         previousHighlightCellX = lastValidCellX;
                         highlightCellX = ++lastValidCellX;
-                        repaint();
+                        repaintCell(previousHighlightCellX, highlightCellY);
+                        repaintCell(highlightCellX, highlightCellY);
+                        scrollToCell(lastValidCellX, lastValidCellY);
                     }
 
                     break;
@@ -490,7 +1174,9 @@ public class TicTacToePanel extends JPanel {
                     if (cellY < currentGrid.getHeight() - 1) {
                         previousHighlightCellY = lastValidCellY;
                         highlightCellY = ++lastValidCellY;
-                        repaint();
+                        repaintCell(highlightCellX, previousHighlightCellY);
+                        repaintCell(highlightCellX, highlightCellY);
+                        scrollToCell(lastValidCellX, lastValidCellY);
                     }
 
                     break;
@@ -501,11 +1187,35 @@ public class TicTacToePanel extends JPanel {
                     if (cellX > 0) {
                         previousHighlightCellX = lastValidCellX;
                         highlightCellX = --lastValidCellX;
-                        repaint();
+                        repaintCell(previousHighlightCellX, highlightCellY);
+                        repaintCell(highlightCellX, highlightCellY);
+                        scrollToCell(lastValidCellX, lastValidCellY);
                     }
 
                     break;
 
+                case KeyEvent.VK_PLUS:
+                case KeyEvent.VK_EQUALS:
+                case KeyEvent.VK_ADD:
+                    zoom(cellLength + zoomStep(), getWidth() / 2, 
+                                                  getHeight() / 2);
+                    break;
+
+                case KeyEvent.VK_MINUS:
+                case KeyEvent.VK_SUBTRACT:
+                    zoom(cellLength - zoomStep(), getWidth() / 2, 
+                                                  getHeight() / 2);
+                    break;
+
+                case KeyEvent.VK_0:
+                case KeyEvent.VK_NUMPAD0:
+                    zoom(0, getWidth() / 2, getHeight() / 2);
+                    break;
+
+                case KeyEvent.VK_H:
+                    toggleHints();
+                    break;
+
                 case KeyEvent.VK_SPACE:
                     if (!lock) {
                         // Try mark.
@@ -514,6 +1224,9 @@ public class TicTacToePanel extends JPanel {
                             currentGrid.mark(lastValidCellX,
                                              lastValidCellY,
                                              Mark.X);
+                            gameRecorder.recordMove(lastValidCellX,
+                                                    lastValidCellY,
+                                                    Mark.X);
 
                             Mark winner = currentGrid.getWinner();
 
@@ -529,6 +1242,7 @@ public class TicTacToePanel extends JPanel {
                             }
 
                             if (message != null) {
+                                gameRecorder.finish();
                                 JOptionPane.showMessageDialog(
                                         gameFrame, 
                                         message,
@@ -537,20 +1251,22 @@ public class TicTacToePanel extends JPanel {
 
                                 gameFrame.setVisible(false);
                                 configurationFrame.setVisible(true);
-                                repaint();
+                                refreshCells();
                                 return;
                             }
                             
-                            repaint();
+                            refreshCells();
                             AIWorker ai = new AIWorker(configurationFrame,
                                                        gameFrame,
-                                                       gameFrame,
+                                                       gameFrame.getProgressListener(),
                                                        currentGrid,
                                                        TicTacToePanel.this,
                                                        moveGenerator,
                                                        heuristicFunction,
-                                                       maximumDepth);
-                            ai.execute();
+                                                       maximumDepth,
+                                                       engineType,
+                                                       timeBudget);
+                            launch(ai);
                         } catch (Exception ex) {
                             unlock();
                         }
@@ -561,8 +1277,27 @@ public class TicTacToePanel extends JPanel {
         }
     }
 
+    private int zoomStep() {
+        return cellLength / 5 + 1;
+    }
+
+    private class ScrollListener implements ChangeListener {
+
+        @Override
+        public void stateChanged(ChangeEvent e) {
+            if (adjustingModels) {
+                return;
+            }
+
+            viewX = horizontalModel.getValue();
+            viewY = verticalModel.getValue();
+            repaint();
+        }
+    }
+
     private class CanvasMouseListener implements MouseListener,
-                                                 MouseMotionListener {
+                                                 MouseMotionListener,
+                                                 MouseWheelListener {
 
         @Override
         public void mouseClicked(MouseEvent e) {
@@ -599,5 +1334,31 @@ public class TicTacToePanel extends JPanel {
         public void mouseMoved(MouseEvent e) {
             tryHighlight(e.getX(), e.getY());
         }
+
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            int rotation = e.getWheelRotation();
+
+            if (e.isControlDown()) {
+                zoom(cellLength - rotation * zoomStep(), e.getX(), e.getY());
+            } else if (e.isShiftDown()) {
+                viewX += rotation * (cellLength + borderWidth);
+                updateScrollModels();
+                repaint();
+            } else {
+                viewY += rotation * (cellLength + borderWidth);
+                updateScrollModels();
+                repaint();
+            }
+        }
+    }
+
+    /**
+     * The ways of showing the hints.
+     */
+    private enum HintMode {
+        OFF,
+        HOVER,
+        HEATMAP
     }
 }
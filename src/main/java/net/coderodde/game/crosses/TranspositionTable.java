@@ -0,0 +1,311 @@
+package net.coderodde.game.crosses;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * This class implements a transposition table mapping the hash keys of
+ * searched positions to their values. A table is meant to live as long as the
+ * game does, so that each AI move reuses the work of the previous ones.
+ * <p>
+ * The entries live outside of the Java heap in a direct buffer of 16-byte
+ * slots, so that even a large table adds nothing to the work of the garbage
+ * collector. A slot holds two words: the packed data of the entry and the key
+ * XORed with the data. The words are read and written without locking, and a
+ * probe accepts a slot only if its words XOR to the probed key, which rejects
+ * the slots whose words were written by two racing stores.
+ * <p>
+ * The slots are grouped into buckets of two. When a bucket is full, the entry
+ * of the least value is replaced: entries stored during earlier searches go
+ * first, and among the entries of the same age the shallowest one goes first.
+ * A new search is started by {@link #newSearch()}, which ages all the entries
+ * stored so far.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 19, 2026)
+ */
+public final class TranspositionTable {
+
+    /**
+     * The name of the system property specifying the size of the table in
+     * megabytes.
+     */
+    public static final String SIZE_PROPERTY_NAME = "crosses.hashSize";
+
+    /**
+     * The default size of the table in megabytes.
+     */
+    public static final int DEFAULT_SIZE = 16;
+
+    /**
+     * The number of bytes in a slot.
+     */
+    public static final int SLOT_SIZE = 16;
+
+    /**
+     * The stored value is the exact value of the position.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * The value of the position is at least the stored value.
+     */
+    public static final int LOWER_BOUND = 1;
+
+    /**
+     * The value of the position is at most the stored value.
+     */
+    public static final int UPPER_BOUND = 2;
+
+    /**
+     * The largest number of slots a buffer can hold.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 26;
+
+    /**
+     * The number of plies of depth one search of age is worth when choosing
+     * the entry to replace. Large enough to make any entry of the current
+     * search more valuable than any older one.
+     */
+    private static final int AGE_WEIGHT = 256;
+
+    /**
+     * Distinguishes the positions with <tt>O</tt> to move from the ones with
+     * <tt>X</tt> to move.
+     */
+    private static final long O_TO_MOVE_KEY = 0x6A09E667F3BCC909L;
+
+    // The layout of the data word. The value is stored with an offset, which
+    // makes the data word of every entry nonzero.
+    private static final int  VALUE_BITS       = 22;
+    private static final int  VALUE_OFFSET     = 1 << (VALUE_BITS - 1);
+    private static final int  DEPTH_SHIFT      = 22;
+    private static final int  BOUND_SHIFT      = 30;
+    private static final int  GENERATION_SHIFT = 32;
+    private static final int  MOVE_SHIFT       = 40;
+    private static final int  BYTE_MASK        = 0xFF;
+    private static final long VALUE_MASK       = (1L << VALUE_BITS) - 1;
+    private static final long MOVE_MASK        = (1L << 24) - 1;
+
+    /**
+     * Accesses the buffer as an array of longs. Aligned accesses through it
+     * are atomic.
+     */
+    private static final VarHandle WORDS =
+            MethodHandles.byteBufferViewVarHandle(long[].class,
+                                                  ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final int mask;
+
+    private volatile int generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE * (1 << 20) / SLOT_SIZE);
+    }
+
+    /**
+     * Creates a table of at least two and at most {@code capacity} slots,
+     * rounded down to a power of two.
+     *
+     * @param capacity the requested number of slots.
+     */
+    public TranspositionTable(int capacity) {
+        int actualCapacity = Integer.highestOneBit(
+                Math.max(2, Math.min(MAXIMUM_CAPACITY, capacity)));
+
+        this.buffer = ByteBuffer.allocateDirect(actualCapacity * SLOT_SIZE)
+                                .order(ByteOrder.nativeOrder());
+        this.mask = actualCapacity - 1;
+    }
+
+    /**
+     * Creates a table of the size in megabytes specified by the system
+     * property {@value #SIZE_PROPERTY_NAME}, or of {@value #DEFAULT_SIZE}
+     * megabytes if the property is not set or is invalid.
+     *
+     * @return a new transposition table.
+     */
+    public static TranspositionTable fromSystemProperties() {
+        int megabytes = DEFAULT_SIZE;
+        String value = System.getProperty(SIZE_PROPERTY_NAME);
+
+        if (value != null) {
+            try {
+                megabytes = Math.max(1, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException ex) {
+                System.err.println("Bad " + SIZE_PROPERTY_NAME + ": " +
+                                   value + ". Using " + DEFAULT_SIZE + ".");
+            }
+        }
+
+        long capacity = (long) megabytes * (1 << 20) / SLOT_SIZE;
+        return new TranspositionTable(
+                (int) Math.min(MAXIMUM_CAPACITY, capacity));
+    }
+
+    /**
+     * Returns the key of {@code grid} with {@code player} to move.
+     *
+     * @param grid   the position.
+     * @param player the player to move.
+     * @return the key of the position.
+     */
+    public static long key(TicTacToeGrid grid, Mark player) {
+        long key = grid.getHashKey();
+        return player == Mark.O ? key ^ O_TO_MOVE_KEY : key;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Starts a new search. The entries stored before become older and are
+     * replaced in preference to the ones stored from now on.
+     */
+    public void newSearch() {
+        generation++;
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public void clear() {
+        for (int i = 0; i <= mask; ++i) {
+            WORDS.setOpaque(buffer, i * SLOT_SIZE, 0L);
+            WORDS.setOpaque(buffer, i * SLOT_SIZE + 8, 0L);
+        }
+    }
+
+    /**
+     * Looks up the entry of {@code key} and copies it to {@code entry}.
+     *
+     * @param key   the key of the position.
+     * @param entry the entry to fill.
+     * @return {@code true} if the entry was found.
+     */
+    public boolean probe(long key, Entry entry) {
+        int index = bucketIndex(key);
+
+        for (int i = index; i < index + 2; ++i) {
+            long data = readData(i);
+
+            if (data != 0L && (readCheck(i) ^ data) == key) {
+                entry.value    = (int) (data & VALUE_MASK) - VALUE_OFFSET;
+                entry.depth    = (int) (data >>> DEPTH_SHIFT) & BYTE_MASK;
+                entry.bound    = (int) (data >>> BOUND_SHIFT) & 3;
+                entry.bestMove = (int) ((data >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Stores an entry for {@code key}. An entry of the same position is
+     * replaced unless it is deeper and of the current search.
+     *
+     * @param key      the key of the position.
+     * @param value    the value of the position.
+     * @param depth    the depth the position was searched to.
+     * @param bound    one of {@link #EXACT}, {@link #LOWER_BOUND} and
+     *                 {@link #UPPER_BOUND}.
+     * @param bestMove the packed index of the cell of the best move, or
+     *                 {@code -1} if not known.
+     */
+    public void store(long key, int value, int depth, int bound, int bestMove) {
+        int currentGeneration = generation & BYTE_MASK;
+        int index = bucketIndex(key);
+        int victim = -1;
+        int victimPriority = Integer.MAX_VALUE;
+
+        depth = Math.min(depth, BYTE_MASK);
+
+        for (int i = index; i < index + 2; ++i) {
+            long data = readData(i);
+            int priority;
+
+            if (data == 0L) {
+                priority = Integer.MIN_VALUE;
+            } else {
+                int slotDepth = (int) (data >>> DEPTH_SHIFT) & BYTE_MASK;
+                int age = (currentGeneration -
+                           (int) (data >>> GENERATION_SHIFT)) & BYTE_MASK;
+
+                if ((readCheck(i) ^ data) == key) {
+                    if (slotDepth > depth && age == 0) {
+                        return;
+                    }
+
+                    victim = i;
+                    break;
+                }
+
+                priority = slotDepth - AGE_WEIGHT * age;
+            }
+
+            if (priority < victimPriority) {
+                victim = i;
+                victimPriority = priority;
+            }
+        }
+
+        // A move too far for the data word is stored as unknown.
+        long move = bestMove < 0 || bestMove >= MOVE_MASK ? 0L : bestMove + 1;
+        long data = (value + VALUE_OFFSET & VALUE_MASK)
+                  | (long) depth << DEPTH_SHIFT
+                  | (long) bound << BOUND_SHIFT
+                  | (long) currentGeneration << GENERATION_SHIFT
+                  | move << MOVE_SHIFT;
+
+        WORDS.setOpaque(buffer, victim * SLOT_SIZE, data);
+        WORDS.setOpaque(buffer, victim * SLOT_SIZE + 8, key ^ data);
+    }
+
+    private long readData(int slot) {
+        return (long) WORDS.getOpaque(buffer, slot * SLOT_SIZE);
+    }
+
+    private long readCheck(int slot) {
+        return (long) WORDS.getOpaque(buffer, slot * SLOT_SIZE + 8);
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key ^ (key >>> 32)) & mask & ~1;
+    }
+
+    /**
+     * A result of a probe. Each searching thread fills its own entry.
+     */
+    public static final class Entry {
+
+        private int value;
+        private int depth;
+        private int bound;
+        private int bestMove;
+
+        public int getValue() {
+            return value;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getBound() {
+            return bound;
+        }
+
+        public int getBestMove() {
+            return bestMove;
+        }
+    }
+}